@@ -0,0 +1,85 @@
+package com.healthcheck.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcheck.model.CreateTargetRequest;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.Target;
+import com.healthcheck.transport.HttpResponseData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two ways {@code checkTarget} answers, over {@link FakeTransport}: a cache hit (freshness check and
+ * the stored result's shared cache view, no copy) and a forced probe (attempt, classification, body preview truncation, JSON validation and storing
+ * the result with its history, latency and summary updates). {@code bodyBytes} above
+ * {@code max-response-body-chars} exercises the preview truncation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckPathBenchmark {
+    @Param({"64", "65536"})
+    private int bodyBytes;
+
+    private HealthCheckService service;
+    private Target target;
+
+    @Setup
+    public void setup() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setCacheTtl(Duration.ofDays(1));
+        properties.setPerTargetScheduling(false);
+        properties.setAsyncTransport(false);
+        FakeTransport transport = new FakeTransport();
+        service = new HealthCheckService(properties, new ObjectMapper(), transport);
+
+        CreateTargetRequest request = new CreateTargetRequest();
+        request.setName("bench");
+        request.setUrl("https://api.example.com/health");
+        request.setExpectJson(true);
+        request.setExpectedBodyContains("\"status\"");
+        target = service.createTarget(request);
+
+        StringBuilder body = new StringBuilder("{\"status\":\"ok\",\"padding\":\"");
+        while (body.length() < bodyBytes - 2) {
+            body.append('x');
+        }
+        body.append("\"}");
+        transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(new HttpResponseData(200,
+            body.toString(), Map.of("Content-Type", List.of("application/json")), Duration.ofMillis(5))));
+        service.checkTarget(target.getId(), true);
+    }
+
+    @TearDown
+    public void teardown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public HealthCheckResult cacheHit() {
+        return service.checkTarget(target.getId(), false);
+    }
+
+    @Benchmark
+    public HealthCheckResult probeAndClassify() {
+        return service.checkTarget(target.getId(), true);
+    }
+}
@@ -0,0 +1,64 @@
+package com.healthcheck.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link CircuitBreakerState} shared by {@value #THREADS} threads: the closed-state admit and success
+ * every healthy probe goes through, the reject path of an open breaker during an outage, and an outage with
+ * no open window where threads race to claim the half-open trial and re-open the breaker when it fails.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(CircuitBreakerBenchmark.THREADS)
+public class CircuitBreakerBenchmark {
+    static final int THREADS = 4;
+
+    @State(Scope.Benchmark)
+    public static class Closed {
+        final CircuitBreakerState breaker = new CircuitBreakerState();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Open {
+        final CircuitBreakerState breaker = new CircuitBreakerState();
+
+        @Setup
+        public void open() {
+            breaker.recordFailure(1, TimeUnit.DAYS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public boolean closedAcquireAndSucceed(Closed state) {
+        boolean admitted = state.breaker.tryAcquire(1);
+        state.breaker.recordSuccess(1);
+        return admitted;
+    }
+
+    @Benchmark
+    public boolean openReject(Open state) {
+        return state.breaker.tryAcquire(1);
+    }
+
+    @Benchmark
+    public boolean trialFailureReopens(Closed state) {
+        boolean admitted = state.breaker.tryAcquire(1);
+        state.breaker.recordFailure(1, 0);
+        return admitted;
+    }
+}
@@ -0,0 +1,98 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.HealthSummaryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getSummary} with {@code results} targets: the cached response, a rebuild after one result changed,
+ * and, as a baseline, recounting every latest result the way the summary was computed before it was
+ * maintained incrementally.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+    private static final HealthStatus[] STATUSES = {HealthStatus.UP, HealthStatus.UP, HealthStatus.UP,
+        HealthStatus.DEGRADED, HealthStatus.DOWN};
+    private static final ErrorCategory[] FAILURES = {ErrorCategory.TIMEOUT, ErrorCategory.HTTP_ERROR,
+        ErrorCategory.CONNECTION_FAILURE};
+
+    @Param({"1000", "10000", "100000"})
+    private int results;
+
+    private final Map<UUID, HealthCheckResult> latest = new ConcurrentSkipListMap<>();
+    private final SummaryCounters counters = new SummaryCounters();
+    private HealthCheckResult up;
+    private HealthCheckResult down;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < results; i++) {
+            HealthStatus status = STATUSES[i % STATUSES.length];
+            HealthCheckResult result = result(status,
+                status == HealthStatus.DOWN ? FAILURES[i % FAILURES.length] : ErrorCategory.NONE);
+            latest.put(UUID.randomUUID(), result);
+            counters.replace(null, result);
+        }
+        up = result(HealthStatus.UP, ErrorCategory.NONE);
+        down = result(HealthStatus.DOWN, ErrorCategory.TIMEOUT);
+        counters.replace(null, up);
+    }
+
+    private static HealthCheckResult result(HealthStatus status, ErrorCategory category) {
+        return HealthCheckResult.builder()
+            .status(status)
+            .errorCategory(category)
+            .timestamp(Instant.now())
+            .build();
+    }
+
+    @Benchmark
+    public HealthSummaryResponse cachedSummary() {
+        return counters.summary();
+    }
+
+    @Benchmark
+    public HealthSummaryResponse summaryAfterChange() {
+        flip = !flip;
+        counters.replace(flip ? up : down, flip ? down : up);
+        return counters.summary();
+    }
+
+    @Benchmark
+    public HealthSummaryResponse recountAllResults() {
+        Map<HealthStatus, Long> statusCounts = new EnumMap<>(HealthStatus.class);
+        Map<ErrorCategory, Long> categoryCounts = new EnumMap<>(ErrorCategory.class);
+        for (HealthCheckResult result : latest.values()) {
+            statusCounts.merge(result.getStatus(), 1L, Long::sum);
+            if (result.getErrorCategory() != ErrorCategory.NONE) {
+                categoryCounts.merge(result.getErrorCategory(), 1L, Long::sum);
+            }
+        }
+        return new HealthSummaryResponse(statusCounts, categoryCounts, Instant.now());
+    }
+}
@@ -0,0 +1,94 @@
+package com.healthcheck.transport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old {@code ObjectMapper.readTree} check with token-level validation, both on a decoded
+ * String and on the raw bytes fed in 16 KiB chunks the way {@link JavaHttpTransport} receives them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonValidationBenchmark {
+    private static final int CHUNK_BYTES = 16 * 1024;
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private String body;
+    private ByteBuffer[] chunks;
+
+    @Setup
+    public void setup() {
+        int items;
+        switch (size) {
+            case "small":
+                items = 4;
+                break;
+            case "medium":
+                items = 1_000;
+                break;
+            default:
+                items = 60_000;
+                break;
+        }
+        StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"checks\":[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"name\":\"dependency-").append(i)
+                .append("\",\"healthy\":true,\"latencyMs\":").append(i % 250)
+                .append(",\"tags\":[\"db\",\"cache\"]}");
+        }
+        body = json.append("]}").toString();
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        int count = (bytes.length + CHUNK_BYTES - 1) / CHUNK_BYTES;
+        chunks = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            int offset = i * CHUNK_BYTES;
+            chunks[i] = ByteBuffer.wrap(bytes, offset, Math.min(CHUNK_BYTES, bytes.length - offset)).slice();
+        }
+    }
+
+    @Benchmark
+    public JsonNode readTree() throws IOException {
+        return objectMapper.readTree(body);
+    }
+
+    @Benchmark
+    public JsonVerdict streamingString() {
+        return JsonStreamValidator.validate(jsonFactory, body, 256, 0);
+    }
+
+    @Benchmark
+    public JsonVerdict streamingChunks() throws IOException {
+        JsonStreamValidator validator = new JsonStreamValidator(jsonFactory, 256, 0);
+        for (ByteBuffer chunk : chunks) {
+            validator.feed(chunk);
+        }
+        return validator.finish();
+    }
+}
@@ -0,0 +1,335 @@
+package com.healthcheck.loadtest;
+
+import com.healthcheck.model.CreateTargetRequest;
+import com.healthcheck.model.EngineStatsResponse;
+import com.healthcheck.model.HttpProtocol;
+import com.healthcheck.model.LatencyWindowStats;
+import com.healthcheck.service.HealthCheckProperties;
+import com.healthcheck.service.HealthCheckService;
+import com.healthcheck.transport.JavaHttpTransport;
+import com.healthcheck.transport.TransportSettings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the real {@link HealthCheckService} and {@link JavaHttpTransport} against a {@link StubServer} on
+ * loopback and reports scheduler throughput. Arguments are {@code key=value}:
+ * <pre>
+ *   targets=2000      number of registered targets
+ *   interval=10s      check interval of every target
+ *   duration=60s      measured run time, after warmup
+ *   warmup=10s        time to let the wheel spread out and connections open
+ *   mode=wheel        wheel (per-target scheduling) or sweep (runSweep every interval)
+ *   concurrency=512   healthcheck.max-concurrent-checks; also the per-host limit, since every target shares one host
+ *   retries=1         maxRetries of every target
+ * </pre>
+ * Targets are spread over stub routes with different behaviour, see {@link #routes(StubServer)}.
+ */
+public final class LoadTest {
+    private static final long SAMPLE_MILLIS = 5_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int targetCount = Integer.parseInt(options.getOrDefault("targets", "2000"));
+        Duration interval = duration(options.getOrDefault("interval", "10s"));
+        Duration duration = duration(options.getOrDefault("duration", "60s"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        boolean sweep = "sweep".equalsIgnoreCase(options.getOrDefault("mode", "wheel"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "512"));
+        int retries = Integer.parseInt(options.getOrDefault("retries", "1"));
+
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setPerTargetScheduling(!sweep);
+        properties.setMaxConcurrentChecks(concurrency);
+        properties.setMaxConcurrentChecksPerHost(concurrency);
+        properties.setCacheTtl(Duration.ZERO);
+        properties.setDefaultHttpProtocol(HttpProtocol.HTTP_1_1);
+        // the stub answers 503 and 429 on purpose; keep breakers from skipping those targets
+        properties.setCircuitFailureThreshold(Integer.MAX_VALUE);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+
+        try (StubServer stub = new StubServer(8)) {
+            Map<String, Integer> mix = routes(stub);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            HealthCheckService service = new HealthCheckService(properties, new ObjectMapper(),
+                new JavaHttpTransport(settings(properties)), registry);
+            try {
+                long registerStart = System.nanoTime();
+                register(service, stub, mix, targetCount, interval, retries);
+                System.out.printf("registered %d targets in %d ms (%s mode, interval %s, %s workers)%n",
+                    targetCount, elapsedMillis(registerStart), sweep ? "sweep" : "wheel", interval,
+                    service.getEngineStats().getWorkerMode());
+
+                run(service, sweep, interval, warmup.toMillis(), null);
+                Snapshot start = Snapshot.take(registry, stub);
+                threads.resetPeakThreadCount();
+                resetHeapPeaks();
+                long measureStart = System.nanoTime();
+                SweepStats sweeps = new SweepStats();
+                run(service, sweep, interval, duration.toMillis(), new Sampler(registry, stub, threads, measureStart, sweeps));
+                double seconds = (System.nanoTime() - measureStart) / 1e9;
+                Snapshot end = Snapshot.take(registry, stub);
+
+                report(targetCount, interval, seconds, start, end, sweep ? sweeps : null, service, stub, threads,
+                    baselineThreads);
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Route name to its share of targets, in percent.
+     */
+    private static Map<String, Integer> routes(StubServer stub) {
+        stub.route("/fast", StubServer.Route.ok().latency(1, 5));
+        stub.route("/normal", StubServer.Route.ok().latency(20, 80).tail(0.01, 1_000));
+        stub.route("/slow-body", StubServer.Route.ok().latency(10, 20).slowBody(16 * 1024, 8, 25));
+        stub.route("/flaky", StubServer.Route.ok().latency(10, 50).errors(0.05).rateLimited(0.05));
+        stub.route("/reset", StubServer.Route.ok().latency(5, 20).resets(0.10));
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("/fast", 40);
+        mix.put("/normal", 35);
+        mix.put("/slow-body", 10);
+        mix.put("/flaky", 10);
+        mix.put("/reset", 5);
+        return mix;
+    }
+
+    private static void register(HealthCheckService service, StubServer stub, Map<String, Integer> mix,
+                                 int targetCount, Duration interval, int retries) {
+        List<String> paths = List.copyOf(mix.keySet());
+        int[] cumulative = new int[paths.size()];
+        int total = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            total += mix.get(paths.get(i));
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < targetCount; i++) {
+            int slot = i % total;
+            int route = 0;
+            while (slot >= cumulative[route]) {
+                route++;
+            }
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("load-" + i);
+            request.setUrl(stub.url(paths.get(route)) + "?t=" + i);
+            request.setCheckInterval(interval);
+            request.setMaxRetries(retries);
+            request.setSlowThreshold(Duration.ofMillis(500));
+            service.createTarget(request);
+        }
+    }
+
+    private static void run(HealthCheckService service, boolean sweep, Duration interval, long millis,
+                            Sampler sampler) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long deadline = now + millis;
+        long nextSweep = now;
+        long nextSample = now + SAMPLE_MILLIS;
+        while (now < deadline) {
+            if (sweep && now >= nextSweep) {
+                long start = System.nanoTime();
+                service.runSweep();
+                if (sampler != null) {
+                    sampler.sweeps.record(elapsedMillis(start));
+                }
+                nextSweep = Math.max(nextSweep + interval.toMillis(), System.currentTimeMillis());
+            }
+            now = System.currentTimeMillis();
+            if (sampler != null && now >= nextSample) {
+                sampler.sample(service);
+                nextSample += SAMPLE_MILLIS;
+            }
+            long wake = Math.min(deadline, sampler != null ? nextSample : deadline);
+            if (sweep) {
+                wake = Math.min(wake, nextSweep);
+            }
+            Thread.sleep(Math.max(1, wake - now));
+            now = System.currentTimeMillis();
+        }
+    }
+
+    private static void report(int targetCount, Duration interval, double seconds, Snapshot start, Snapshot end,
+                               SweepStats sweeps, HealthCheckService service, StubServer stub, ThreadMXBean threads,
+                               int baselineThreads) {
+        double expected = targetCount / (interval.toNanos() / 1e9);
+        double achieved = (end.probes - start.probes) / seconds;
+        double attempts = (end.attempts - start.attempts) / seconds;
+        double meanAttemptMs = end.attempts - start.attempts == 0 ? 0
+            : (end.attemptNanos - start.attemptNanos) / 1e6 / (end.attempts - start.attempts);
+        long served = end.served - start.served;
+        double injectedMs = served == 0 ? 0 : (end.injectedMicros - start.injectedMicros) / 1e3 / served;
+
+        System.out.println();
+        System.out.println("== load test report ==");
+        System.out.printf("targets           %d every %s over %.1f s%n", targetCount, interval, seconds);
+        System.out.printf("probes/sec        %.1f achieved, %.1f expected (%.1f%%)%n", achieved, expected,
+            expected == 0 ? 0 : 100 * achieved / expected);
+        System.out.printf("attempts/sec      %.1f (including retries)%n", attempts);
+        if (sweeps != null) {
+            System.out.printf("sweep duration    min %d ms, mean %.0f ms, max %d ms over %d sweeps%n",
+                sweeps.min, sweeps.mean(), sweeps.max, sweeps.count);
+        }
+        System.out.printf("latency           mean attempt %.2f ms, mean injected %.2f ms, overhead %.2f ms%n",
+            meanAttemptMs, injectedMs, meanAttemptMs - injectedMs);
+        LatencyWindowStats window = service.getFleetLatency().getWindows().get(0);
+        System.out.printf("fleet latency     p50 %.1f ms, p99 %.1f ms, max %.1f ms (last %s)%n",
+            window.getP50Ms(), window.getP99Ms(), window.getMaxMs(), window.getWindow());
+        System.out.printf("stub              %d requests, %d completed (%d bodies abandoned), %d resets, %d 429s, "
+            + "%d 503s%n",
+            stub.requests(), stub.completed(), stub.abandoned(), stub.resets(), stub.rateLimited(),
+            stub.serverErrors());
+        EngineStatsResponse engine = service.getEngineStats();
+        System.out.printf("engine            %s workers, %d in flight, %d queued, %d coalesced%n",
+            engine.getWorkerMode(), engine.getInFlight(), engine.getQueued(), engine.getCoalescedChecks());
+        System.out.printf("threads           %d live, %d peak, %d before start%n",
+            threads.getThreadCount(), threads.getPeakThreadCount(), baselineThreads);
+        System.gc();
+        System.out.printf("heap              %d MB peak, %d MB live after GC, %d MB max%n",
+            heapPeakBytes() >> 20, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20,
+            Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    private static TransportSettings settings(HealthCheckProperties properties) {
+        TransportSettings settings = new TransportSettings();
+        settings.setMaxPreviewBytes(properties.getMaxResponseBodyChars());
+        settings.setMaxBodyBytes(properties.getMaxResponseBodySize().toBytes());
+        settings.setDefaultProtocol(properties.getDefaultHttpProtocol());
+        return settings;
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long heapPeakBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static final class Snapshot {
+        final double probes;
+        final long attempts;
+        final double attemptNanos;
+        final long served;
+        final long injectedMicros;
+
+        private Snapshot(double probes, long attempts, double attemptNanos, long served, long injectedMicros) {
+            this.probes = probes;
+            this.attempts = attempts;
+            this.attemptNanos = attemptNanos;
+            this.served = served;
+            this.injectedMicros = injectedMicros;
+        }
+
+        static Snapshot take(SimpleMeterRegistry registry, StubServer stub) {
+            double probes = 0;
+            for (Counter counter : registry.find("healthcheck.probes").counters()) {
+                probes += counter.count();
+            }
+            long attempts = 0;
+            double nanos = 0;
+            for (Timer timer : registry.find("healthcheck.transport.latency").timers()) {
+                attempts += timer.count();
+                nanos += timer.totalTime(TimeUnit.NANOSECONDS);
+            }
+            return new Snapshot(probes, attempts, nanos, stub.completed(), stub.injectedMicros());
+        }
+    }
+
+    private static final class SweepStats {
+        long count;
+        long total;
+        long min = Long.MAX_VALUE;
+        long max;
+
+        void record(long millis) {
+            count++;
+            total += millis;
+            min = Math.min(min, millis);
+            max = Math.max(max, millis);
+        }
+
+        double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+    }
+
+    private static final class Sampler {
+        private final SimpleMeterRegistry registry;
+        private final StubServer stub;
+        private final ThreadMXBean threads;
+        private final SweepStats sweeps;
+        private long lastNanos;
+        private double lastProbes;
+
+        Sampler(SimpleMeterRegistry registry, StubServer stub, ThreadMXBean threads, long startNanos,
+                SweepStats sweeps) {
+            this.registry = registry;
+            this.stub = stub;
+            this.threads = threads;
+            this.sweeps = sweeps;
+            this.lastNanos = startNanos;
+            this.lastProbes = Snapshot.take(registry, stub).probes;
+        }
+
+        void sample(HealthCheckService service) {
+            long now = System.nanoTime();
+            double probes = Snapshot.take(registry, stub).probes;
+            EngineStatsResponse engine = service.getEngineStats();
+            System.out.printf("%6.1f probes/s  %4d in flight  %4d queued  %4d threads  %5d MB heap%n",
+                (probes - lastProbes) / ((now - lastNanos) / 1e9), engine.getInFlight(), engine.getQueued(),
+                threads.getThreadCount(), ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+            lastNanos = now;
+            lastProbes = probes;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.healthcheck.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loopback HTTP/1.1 server whose routes answer with programmable latency, status codes, slow bodies,
+ * rate limiting and connection resets. Delays are served from a scheduler rather than by sleeping, so a few
+ * threads can hold thousands of slow responses open.
+ */
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService delays;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder injectedMicros = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    public StubServer(int threads) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.handlers = Executors.newFixedThreadPool(threads, named("stub-http"));
+        this.delays = Executors.newScheduledThreadPool(Math.max(1, threads / 2), named("stub-delay"));
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public StubServer route(String path, Route route) {
+        routes.put(path, route);
+        return this;
+    }
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long completed() {
+        return completed.sum();
+    }
+
+    public long resets() {
+        return resets.sum();
+    }
+
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    /**
+     * Slow bodies the client stopped reading before the last chunk; they still count as completed.
+     */
+    public long abandoned() {
+        return abandoned.sum();
+    }
+
+    /**
+     * Total delay the stub added to completed responses, in microseconds. For an abandoned body this is the
+     * delay up to the last chunk the client accepted.
+     */
+    public long injectedMicros() {
+        return injectedMicros.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        delays.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        Route route = routes.get(exchange.getRequestURI().getPath());
+        if (route == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < route.resetRate) {
+            resets.increment();
+            // closing before any response headers drops the connection
+            exchange.close();
+            return;
+        }
+        int status = route.status;
+        if (random.nextDouble() < route.rateLimitRate) {
+            status = 429;
+            rateLimited.increment();
+        } else if (random.nextDouble() < route.errorRate) {
+            status = 503;
+            serverErrors.increment();
+        }
+        long delayMicros = route.sampleLatencyMicros(random);
+        int responseStatus = status;
+        delays.schedule(() -> respond(exchange, route, responseStatus, delayMicros), delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void respond(HttpExchange exchange, Route route, int status, long delayMicros) {
+        try {
+            byte[] body = route.body;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (status == 429) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+            }
+            if (route.slowChunks <= 1) {
+                exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+                if (body.length > 0) {
+                    exchange.getResponseBody().write(body);
+                }
+                finish(exchange, delayMicros);
+                return;
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            writeChunk(exchange, route, 0, delayMicros);
+        } catch (IOException ex) {
+            exchange.close();
+        }
+    }
+
+    private void writeChunk(HttpExchange exchange, Route route, int chunk, long delayMicros) {
+        try {
+            byte[] body = route.body;
+            int from = (int) ((long) body.length * chunk / route.slowChunks);
+            int to = (int) ((long) body.length * (chunk + 1) / route.slowChunks);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, from, to - from);
+            out.flush();
+            if (chunk + 1 == route.slowChunks) {
+                finish(exchange, delayMicros + route.chunkDelayMicros * chunk);
+                return;
+            }
+            delays.schedule(() -> writeChunk(exchange, route, chunk + 1, delayMicros),
+                route.chunkDelayMicros, TimeUnit.MICROSECONDS);
+        } catch (IOException ex) {
+            // the client cancelled the download once it had seen enough of the body
+            abandoned.increment();
+            finish(exchange, delayMicros + route.chunkDelayMicros * Math.max(0, chunk - 1L));
+        }
+    }
+
+    private void finish(HttpExchange exchange, long injected) {
+        exchange.close();
+        completed.increment();
+        injectedMicros.add(injected);
+    }
+
+    private static java.util.concurrent.ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * How one path answers. Latency is uniform between {@code min} and {@code max}, except that a
+     * {@code tailRate} fraction of requests take {@code tailLatency} instead.
+     */
+    public static class Route {
+        private int status = 200;
+        private long minMicros;
+        private long maxMicros;
+        private double tailRate;
+        private long tailMicros;
+        private double errorRate;
+        private double rateLimitRate;
+        private double resetRate;
+        private byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+        private int slowChunks = 1;
+        private long chunkDelayMicros;
+
+        public static Route ok() {
+            return new Route();
+        }
+
+        public Route status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public Route latency(long minMillis, long maxMillis) {
+            this.minMicros = TimeUnit.MILLISECONDS.toMicros(minMillis);
+            this.maxMicros = TimeUnit.MILLISECONDS.toMicros(Math.max(minMillis, maxMillis));
+            return this;
+        }
+
+        public Route tail(double rate, long latencyMillis) {
+            this.tailRate = rate;
+            this.tailMicros = TimeUnit.MILLISECONDS.toMicros(latencyMillis);
+            return this;
+        }
+
+        public Route errors(double rate) {
+            this.errorRate = rate;
+            return this;
+        }
+
+        public Route rateLimited(double rate) {
+            this.rateLimitRate = rate;
+            return this;
+        }
+
+        public Route resets(double rate) {
+            this.resetRate = rate;
+            return this;
+        }
+
+        /**
+         * Sends a body of {@code bytes} in {@code chunks} pieces with {@code chunkDelayMillis} between them.
+         */
+        public Route slowBody(int bytes, int chunks, long chunkDelayMillis) {
+            StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"padding\":\"");
+            while (json.length() < bytes - 2) {
+                json.append('x');
+            }
+            this.body = json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+            this.slowChunks = Math.max(1, chunks);
+            this.chunkDelayMicros = TimeUnit.MILLISECONDS.toMicros(chunkDelayMillis);
+            return this;
+        }
+
+        private long sampleLatencyMicros(ThreadLocalRandom random) {
+            if (tailRate > 0 && random.nextDouble() < tailRate) {
+                return tailMicros;
+            }
+            return maxMicros > minMicros ? random.nextLong(minMicros, maxMicros + 1) : minMicros;
+        }
+    }
+}
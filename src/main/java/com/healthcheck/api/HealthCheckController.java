@@ -1,6 +1,7 @@
 package com.healthcheck.api;
 
 import com.healthcheck.model.*;
+import com.healthcheck.service.DuplicateExternalKeyException;
 import com.healthcheck.service.HealthCheckService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,22 +9,39 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "Health Check API", description = "Manage and monitor third-party API health")
 public class HealthCheckController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // versions restart at zero, so tags from before a restart must not match
+    private static final String RESULTS_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     private final HealthCheckService service;
+    private final HealthEventStream eventStream;
+    private final TargetNdjson ndjson;
 
-    public HealthCheckController(HealthCheckService service) {
+    public HealthCheckController(HealthCheckService service, HealthEventStream eventStream, TargetNdjson ndjson) {
         this.service = service;
+        this.eventStream = eventStream;
+        this.ndjson = ndjson;
     }
 
     @PostMapping("/targets")
@@ -31,6 +49,7 @@ public class HealthCheckController {
                description = "Creates a new target to monitor. Use test data from README.md")
     @ApiResponse(responseCode = "201", description = "Target created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid request body")
+    @ApiResponse(responseCode = "409", description = "externalKey already held by another target")
     public ResponseEntity<Target> createTarget(@Valid @RequestBody CreateTargetRequest request) {
         Target created = service.createTarget(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -43,6 +62,23 @@ public class HealthCheckController {
         return ResponseEntity.ok(service.listTargets());
     }
 
+    @PostMapping(path = "/targets:bulk", consumes = TargetNdjson.MEDIA_TYPE)
+    @Operation(summary = "Import targets from NDJSON",
+               description = "One CreateTargetRequest per line; lines with an existing externalKey update that target")
+    @ApiResponse(responseCode = "200", description = "Counts of created, updated and failed lines with per-line errors")
+    public ResponseEntity<BulkImportResponse> importTargets(InputStream body) throws IOException {
+        return ResponseEntity.ok(ndjson.importTargets(body));
+    }
+
+    @GetMapping(path = "/targets:export", produces = TargetNdjson.MEDIA_TYPE)
+    @Operation(summary = "Export all targets as NDJSON", description = "One target per line, streamed")
+    @ApiResponse(responseCode = "200", description = "Target stream")
+    public ResponseEntity<StreamingResponseBody> exportTargets() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(TargetNdjson.MEDIA_TYPE))
+            .body(ndjson::exportTargets);
+    }
+
     @GetMapping("/targets/{id}")
     @Operation(summary = "Get a specific target by ID")
     @ApiResponse(responseCode = "200", description = "Target found")
@@ -93,11 +129,68 @@ public class HealthCheckController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/targets/{id}/history")
+    @Operation(summary = "Get recent results for a target",
+               description = "Newest first, at most limit entries, optionally only those at or after since")
+    @ApiResponse(responseCode = "200", description = "Result history")
+    @ApiResponse(responseCode = "404", description = "Target not found")
+    public ResponseEntity<List<ResultHistoryEntry>> getHistory(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        List<ResultHistoryEntry> history = service.getHistory(id, limit, since);
+        if (history == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/targets/{id}/latency")
+    @Operation(summary = "Get latency percentiles for a target",
+               description = "p50/p90/p99/p999 and max per configured window, from every probe attempt")
+    @ApiResponse(responseCode = "200", description = "Latency percentiles")
+    @ApiResponse(responseCode = "404", description = "Target not found")
+    public ResponseEntity<LatencyResponse> getLatency(@PathVariable UUID id) {
+        LatencyResponse latency = service.getLatency(id);
+        if (latency == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(latency);
+    }
+
+    @GetMapping("/targets/{id}/breaker")
+    @Operation(summary = "Get circuit breaker state for a target",
+               description = "State, half-open trial progress and transition counters")
+    @ApiResponse(responseCode = "200", description = "Current breaker state")
+    @ApiResponse(responseCode = "404", description = "Target not found")
+    public ResponseEntity<CircuitBreakerResponse> getCircuitBreaker(@PathVariable UUID id) {
+        CircuitBreakerResponse breaker = service.getCircuitBreaker(id);
+        if (breaker == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(breaker);
+    }
+
     @GetMapping("/health/results")
-    @Operation(summary = "Get all health check results")
+    @Operation(summary = "Get health check results",
+               description = "Latest result per target ordered by target ID, optionally filtered and paged. "
+                   + "The next page's cursor is returned in X-Next-Cursor; If-None-Match with the ETag "
+                   + "answers 304 while no result has changed")
     @ApiResponse(responseCode = "200", description = "Map of target ID to latest result")
-    public ResponseEntity<Map<UUID, HealthCheckResult>> getLastResults() {
-        return ResponseEntity.ok(service.getLastResults());
+    @ApiResponse(responseCode = "304", description = "No result changed since the given ETag")
+    public ResponseEntity<Map<UUID, HealthCheckResult>> getLastResults(
+            ResultsQuery query,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = "W/\"" + RESULTS_EPOCH + "-" + service.getResultsVersion() + "\"";
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResultsPage page = service.getResults(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getResults());
     }
 
     @GetMapping("/health/summary")
@@ -106,4 +199,62 @@ public class HealthCheckController {
     public ResponseEntity<HealthSummaryResponse> getSummary() {
         return ResponseEntity.ok(service.getSummary());
     }
+
+    @GetMapping(path = "/health/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream health status changes",
+               description = "Server-Sent Events with transition, result, removed and resync events")
+    @ApiResponse(responseCode = "200", description = "Event stream")
+    public SseEmitter streamHealth(@RequestParam(required = false) Set<UUID> targets,
+                                   @RequestParam(required = false) Set<HealthStatus> status,
+                                   @RequestParam(defaultValue = "true") boolean changesOnly) {
+        return eventStream.subscribe(targets, status, changesOnly);
+    }
+
+    @GetMapping("/health/latency")
+    @Operation(summary = "Get fleet-wide latency percentiles",
+               description = "Latency histograms of all targets merged per configured window")
+    @ApiResponse(responseCode = "200", description = "Merged latency percentiles")
+    public ResponseEntity<LatencyResponse> getFleetLatency() {
+        return ResponseEntity.ok(service.getFleetLatency());
+    }
+
+    @GetMapping("/health/engine")
+    @Operation(summary = "Get check engine statistics",
+               description = "Concurrency limits, in-flight and queued checks, and the last scheduled sweep")
+    @ApiResponse(responseCode = "200", description = "Current engine statistics")
+    public ResponseEntity<EngineStatsResponse> getEngineStats() {
+        return ResponseEntity.ok(service.getEngineStats());
+    }
+
+    @GetMapping("/health/connections")
+    @Operation(summary = "Get HTTP client pool statistics",
+               description = "Per-host clients with request, TLS handshake and connection reuse counters")
+    @ApiResponse(responseCode = "200", description = "Current client pool statistics")
+    public ResponseEntity<List<ConnectionPoolStats>> getConnectionStats() {
+        return ResponseEntity.ok(service.getConnectionStats());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTarget(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+
+    @ExceptionHandler(DuplicateExternalKeyException.class)
+    public ResponseEntity<Map<String, String>> handleDuplicateExternalKey(DuplicateExternalKeyException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
 }
@@ -0,0 +1,241 @@
+package com.healthcheck.api;
+
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.HealthStreamEvent;
+import com.healthcheck.service.HealthCheckProperties;
+import com.healthcheck.service.HealthCheckService;
+import com.healthcheck.service.ResultListener;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes result deltas to Server-Sent Events subscribers. Results are queued per subscriber, coalesced per
+ * target and flushed every {@code healthcheck.stream-flush-interval}. A subscriber whose queue would exceed
+ * {@code healthcheck.stream-buffer-size} targets loses its queue and gets a {@code resync} event telling it
+ * to reload {@code /api/health/results}.
+ */
+@Component
+public class HealthEventStream implements ResultListener {
+    static final String RESULT = "result";
+    static final String TRANSITION = "transition";
+    static final String REMOVED = "removed";
+    static final String RESYNC = "resync";
+
+    private final HealthCheckService service;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int bufferSize;
+    private final long heartbeatNanos;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService senders;
+
+    public HealthEventStream(HealthCheckService service, HealthCheckProperties properties) {
+        this.service = service;
+        this.bufferSize = Math.max(1, properties.getStreamBufferSize());
+        this.heartbeatNanos = properties.getStreamHeartbeat().toNanos();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "health-stream-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushMillis = Math.max(10, properties.getStreamFlushInterval().toMillis());
+        ticker.scheduleWithFixedDelay(this::tick, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        service.addResultListener(this);
+    }
+
+    public SseEmitter subscribe(Set<UUID> targetIds, Set<HealthStatus> statuses, boolean changesOnly) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, targetIds, statuses, changesOnly, bufferSize);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onResult(UUID targetId, HealthCheckResult previous, HealthCheckResult current) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(targetId, previous, current);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        service.removeResultListener(this);
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.due(now, heartbeatNanos) && subscriber.flushing.compareAndSet(false, true)) {
+                senders.execute(() -> flush(subscriber));
+            }
+        }
+    }
+
+    private void flush(Subscriber subscriber) {
+        try {
+            Batch batch = subscriber.drain();
+            if (batch.resync) {
+                subscriber.emitter.send(SseEmitter.event().name(RESYNC).data("reload /api/health/results"));
+            }
+            for (Pending pending : batch.events) {
+                subscriber.emitter.send(SseEmitter.event().name(pending.kind).data(pending.event));
+            }
+            if (!batch.resync && batch.events.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            subscriber.lastSentNanos = System.nanoTime();
+        } catch (IOException | IllegalStateException ex) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+        } finally {
+            subscriber.flushing.set(false);
+        }
+    }
+
+    static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<UUID> targetIds;
+        private final Set<HealthStatus> statuses;
+        private final boolean changesOnly;
+        private final int bufferSize;
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private volatile long lastSentNanos = System.nanoTime();
+
+        private Map<UUID, Pending> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+
+        Subscriber(SseEmitter emitter, Set<UUID> targetIds, Set<HealthStatus> statuses, boolean changesOnly,
+                   int bufferSize) {
+            this.emitter = emitter;
+            this.targetIds = targetIds == null || targetIds.isEmpty() ? null : Set.copyOf(targetIds);
+            this.statuses = statuses == null || statuses.isEmpty() ? null : Set.copyOf(statuses);
+            this.changesOnly = changesOnly;
+            this.bufferSize = bufferSize;
+        }
+
+        void offer(UUID targetId, HealthCheckResult previous, HealthCheckResult current) {
+            if (targetIds != null && !targetIds.contains(targetId)) {
+                return;
+            }
+            HealthStatus before = previous == null ? null : previous.getStatus();
+            HealthStatus after = current == null ? null : current.getStatus();
+            if (statuses != null && !watched(before) && !watched(after)) {
+                return;
+            }
+            synchronized (this) {
+                if (overflowed) {
+                    return;
+                }
+                Pending queued = pending.remove(targetId);
+                Pending next = Pending.of(targetId, queued, previous, current);
+                if (changesOnly && next.kind.equals(RESULT)) {
+                    return;
+                }
+                if (pending.size() >= bufferSize) {
+                    pending.clear();
+                    overflowed = true;
+                    return;
+                }
+                pending.put(targetId, next);
+            }
+        }
+
+        private boolean watched(HealthStatus status) {
+            return status != null && statuses.contains(status);
+        }
+
+        synchronized boolean due(long now, long heartbeatNanos) {
+            return overflowed || !pending.isEmpty() || now - lastSentNanos >= heartbeatNanos;
+        }
+
+        synchronized Batch drain() {
+            Batch batch = new Batch(overflowed, new ArrayList<>(pending.values()));
+            pending = new LinkedHashMap<>();
+            overflowed = false;
+            return batch;
+        }
+    }
+
+    static final class Pending {
+        final String kind;
+        final HealthStreamEvent event;
+
+        private Pending(String kind, HealthStreamEvent event) {
+            this.kind = kind;
+            this.event = event;
+        }
+
+        /**
+         * Folds a new result into the event already queued for the target, keeping the earliest previous
+         * state so a burst collapses to one transition, or to a plain result if the target ended where it began.
+         */
+        static Pending of(UUID targetId, Pending queued, HealthCheckResult previous, HealthCheckResult current) {
+            HealthStreamEvent event = new HealthStreamEvent();
+            event.setTargetId(targetId);
+            if (queued != null) {
+                event.setPreviousStatus(queued.event.getPreviousStatus());
+                event.setPreviousErrorCategory(queued.event.getPreviousErrorCategory());
+            } else if (previous != null) {
+                event.setPreviousStatus(previous.getStatus());
+                event.setPreviousErrorCategory(previous.getErrorCategory());
+            }
+            if (current == null) {
+                return new Pending(REMOVED, event);
+            }
+            event.setStatus(current.getStatus());
+            event.setErrorCategory(current.getErrorCategory());
+            event.setHttpStatus(current.getHttpStatus());
+            event.setLatencyMs(current.getLatencyMs());
+            event.setTimestamp(current.getTimestamp());
+            boolean changed = event.getStatus() != event.getPreviousStatus()
+                || !Objects.equals(event.getErrorCategory(), event.getPreviousErrorCategory());
+            return new Pending(changed ? TRANSITION : RESULT, event);
+        }
+    }
+
+    static final class Batch {
+        final boolean resync;
+        final List<Pending> events;
+
+        private Batch(boolean resync, List<Pending> events) {
+            this.resync = resync;
+            this.events = events;
+        }
+    }
+}
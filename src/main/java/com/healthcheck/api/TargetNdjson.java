@@ -0,0 +1,133 @@
+package com.healthcheck.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.healthcheck.model.BulkImportError;
+import com.healthcheck.model.BulkImportResponse;
+import com.healthcheck.model.CreateTargetRequest;
+import com.healthcheck.model.Target;
+import com.healthcheck.service.HealthCheckService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Newline-delimited JSON import and export of targets. Import reads one {@link CreateTargetRequest} per line,
+ * validates and applies them {@value #BATCH_SIZE} at a time, and upserts on {@code externalKey} so re-running
+ * an import does not duplicate targets. A bad line is reported with its line number and does not stop the
+ * rest. Export writes one target per line straight from the live registry.
+ */
+@Component
+public class TargetNdjson {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final HealthCheckService service;
+    private final Validator validator;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public TargetNdjson(HealthCheckService service, Validator validator, ObjectMapper objectMapper) {
+        this.service = service;
+        this.validator = validator;
+        this.reader = objectMapper.readerFor(CreateTargetRequest.class);
+        this.writer = objectMapper.writerFor(Target.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+    }
+
+    public BulkImportResponse importTargets(InputStream body) throws IOException {
+        BulkImportResponse response = new BulkImportResponse();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<Line> batch = new ArrayList<>(BATCH_SIZE);
+        long number = 0;
+        String text;
+        while ((text = lines.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(new Line(number, reader.readValue(text)));
+            } catch (JsonProcessingException ex) {
+                fail(response, number, null, "Invalid JSON: " + ex.getOriginalMessage());
+                continue;
+            }
+            if (batch.size() == BATCH_SIZE) {
+                apply(batch, response);
+                batch.clear();
+            }
+        }
+        apply(batch, response);
+        return response;
+    }
+
+    public void exportTargets(OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (Target target : service.targetsView()) {
+                writer.writeValue(generator, target);
+            }
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void apply(List<Line> batch, BulkImportResponse response) {
+        List<Line> valid = new ArrayList<>(batch.size());
+        for (Line line : batch) {
+            Set<ConstraintViolation<CreateTargetRequest>> violations = validator.validate(line.request);
+            if (violations.isEmpty()) {
+                valid.add(line);
+            } else {
+                fail(response, line.number, line.request.getExternalKey(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            }
+        }
+        for (Line line : valid) {
+            try {
+                if (service.upsertTarget(line.request)) {
+                    response.setCreated(response.getCreated() + 1);
+                } else {
+                    response.setUpdated(response.getUpdated() + 1);
+                }
+            } catch (IllegalArgumentException ex) {
+                fail(response, line.number, line.request.getExternalKey(), ex.getMessage());
+            }
+        }
+    }
+
+    private static void fail(BulkImportResponse response, long line, String externalKey, String message) {
+        response.setFailed(response.getFailed() + 1);
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add(new BulkImportError(line, externalKey, message));
+        }
+    }
+
+    private static final class Line {
+        private final long number;
+        private final CreateTargetRequest request;
+
+        private Line(long number, CreateTargetRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.healthcheck.model;
+
+public class BulkImportError {
+    private long line;
+    private String externalKey;
+    private String message;
+
+    public BulkImportError() {
+    }
+
+    public BulkImportError(long line, String externalKey, String message) {
+        this.line = line;
+        this.externalKey = externalKey;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getExternalKey() {
+        return externalKey;
+    }
+
+    public void setExternalKey(String externalKey) {
+        this.externalKey = externalKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,43 @@
+package com.healthcheck.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResponse {
+    private int created;
+    private int updated;
+    private int failed;
+    private List<BulkImportError> errors = new ArrayList<>();
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,105 @@
+package com.healthcheck.model;
+
+import java.util.UUID;
+
+public class CircuitBreakerResponse {
+    private UUID targetId;
+    private String state;
+    private int consecutiveFailures;
+    private long remainingOpenMs;
+    private int halfOpenTrials;
+    private int halfOpenTrialsAdmitted;
+    private int halfOpenTrialsSucceeded;
+    private long timesOpened;
+    private long timesHalfOpened;
+    private long timesClosed;
+    private long rejectedCalls;
+
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(UUID targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public long getRemainingOpenMs() {
+        return remainingOpenMs;
+    }
+
+    public void setRemainingOpenMs(long remainingOpenMs) {
+        this.remainingOpenMs = remainingOpenMs;
+    }
+
+    public int getHalfOpenTrials() {
+        return halfOpenTrials;
+    }
+
+    public void setHalfOpenTrials(int halfOpenTrials) {
+        this.halfOpenTrials = halfOpenTrials;
+    }
+
+    public int getHalfOpenTrialsAdmitted() {
+        return halfOpenTrialsAdmitted;
+    }
+
+    public void setHalfOpenTrialsAdmitted(int halfOpenTrialsAdmitted) {
+        this.halfOpenTrialsAdmitted = halfOpenTrialsAdmitted;
+    }
+
+    public int getHalfOpenTrialsSucceeded() {
+        return halfOpenTrialsSucceeded;
+    }
+
+    public void setHalfOpenTrialsSucceeded(int halfOpenTrialsSucceeded) {
+        this.halfOpenTrialsSucceeded = halfOpenTrialsSucceeded;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened;
+    }
+
+    public void setTimesOpened(long timesOpened) {
+        this.timesOpened = timesOpened;
+    }
+
+    public long getTimesHalfOpened() {
+        return timesHalfOpened;
+    }
+
+    public void setTimesHalfOpened(long timesHalfOpened) {
+        this.timesHalfOpened = timesHalfOpened;
+    }
+
+    public long getTimesClosed() {
+        return timesClosed;
+    }
+
+    public void setTimesClosed(long timesClosed) {
+        this.timesClosed = timesClosed;
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    public void setRejectedCalls(long rejectedCalls) {
+        this.rejectedCalls = rejectedCalls;
+    }
+}
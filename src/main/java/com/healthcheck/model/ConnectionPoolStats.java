@@ -0,0 +1,87 @@
+package com.healthcheck.model;
+
+import java.time.Instant;
+
+public class ConnectionPoolStats {
+    private String scheme;
+    private String host;
+    private int port;
+    private String clientVersion;
+    private long requests;
+    private long http2Responses;
+    private Long tlsHandshakes;
+    private Long reusedConnections;
+    private Instant lastUsedAt;
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    public void setScheme(String scheme) {
+        this.scheme = scheme;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getClientVersion() {
+        return clientVersion;
+    }
+
+    public void setClientVersion(String clientVersion) {
+        this.clientVersion = clientVersion;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getHttp2Responses() {
+        return http2Responses;
+    }
+
+    public void setHttp2Responses(long http2Responses) {
+        this.http2Responses = http2Responses;
+    }
+
+    public Long getTlsHandshakes() {
+        return tlsHandshakes;
+    }
+
+    public void setTlsHandshakes(Long tlsHandshakes) {
+        this.tlsHandshakes = tlsHandshakes;
+    }
+
+    public Long getReusedConnections() {
+        return reusedConnections;
+    }
+
+    public void setReusedConnections(Long reusedConnections) {
+        this.reusedConnections = reusedConnections;
+    }
+
+    public Instant getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(Instant lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+}
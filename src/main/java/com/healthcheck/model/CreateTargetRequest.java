@@ -1,10 +1,12 @@
 package com.healthcheck.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 import java.time.Duration;
 import java.util.Map;
@@ -52,10 +54,32 @@ public class CreateTargetRequest {
     @Schema(description = "Response time threshold for DEGRADED status", example = "2s")
     private Duration slowThreshold = Duration.ofSeconds(2);
 
+    @Schema(description = "Probe phase slowThreshold applies to: TOTAL, DNS, TTFB or DOWNLOAD (defaults to TOTAL)",
+            example = "TTFB")
+    private ProbePhase slowThresholdPhase;
+
     @Min(0)
     @Schema(description = "Number of retries on failure", example = "2")
     private int maxRetries = 2;
 
+    @Schema(description = "How often the target is probed in the background (defaults to healthcheck.scheduler-delay)",
+            example = "30s")
+    private Duration checkInterval;
+
+    @Schema(description = "HTTP protocol to probe with (defaults to healthcheck.default-http-protocol)",
+            example = "HTTP_2")
+    private HttpProtocol protocol;
+
+    @Size(max = 256)
+    @Schema(description = "Caller-supplied unique key; bulk imports update the target with this key instead of adding another",
+            example = "billing-api-eu")
+    private String externalKey;
+
+    @DecimalMin("0.0")
+    @Schema(description = "Requests per second allowed for this target, overriding healthcheck.rate-limit-per-target (0 = unlimited)",
+            example = "0.5")
+    private Double rateLimit;
+
     public String getName() {
         return name;
     }
@@ -152,6 +176,14 @@ public class CreateTargetRequest {
         this.slowThreshold = slowThreshold;
     }
 
+    public ProbePhase getSlowThresholdPhase() {
+        return slowThresholdPhase;
+    }
+
+    public void setSlowThresholdPhase(ProbePhase slowThresholdPhase) {
+        this.slowThresholdPhase = slowThresholdPhase;
+    }
+
     public int getMaxRetries() {
         return maxRetries;
     }
@@ -159,4 +191,36 @@ public class CreateTargetRequest {
     public void setMaxRetries(int maxRetries) {
         this.maxRetries = maxRetries;
     }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(HttpProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getExternalKey() {
+        return externalKey;
+    }
+
+    public void setExternalKey(String externalKey) {
+        this.externalKey = externalKey;
+    }
+
+    public Double getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(Double rateLimit) {
+        this.rateLimit = rateLimit;
+    }
 }
@@ -0,0 +1,150 @@
+package com.healthcheck.model;
+
+import java.time.Instant;
+
+public class EngineStatsResponse {
+    private String workerMode;
+    private int maxConcurrentChecks;
+    private int maxConcurrentChecksPerHost;
+    private int inFlight;
+    private int queued;
+    private long completedChecks;
+    private long coalescedChecks;
+    private long skippedChecks;
+    private String schedulingMode;
+    private int scheduledTargets;
+    private long scheduledProbesFired;
+    private long sweepsCompleted;
+    private int lastSweepTargets;
+    private int lastSweepFailures;
+    private long lastSweepDurationMs;
+    private Instant lastSweepCompletedAt;
+
+    public String getWorkerMode() {
+        return workerMode;
+    }
+
+    public void setWorkerMode(String workerMode) {
+        this.workerMode = workerMode;
+    }
+
+    public int getMaxConcurrentChecks() {
+        return maxConcurrentChecks;
+    }
+
+    public void setMaxConcurrentChecks(int maxConcurrentChecks) {
+        this.maxConcurrentChecks = maxConcurrentChecks;
+    }
+
+    public int getMaxConcurrentChecksPerHost() {
+        return maxConcurrentChecksPerHost;
+    }
+
+    public void setMaxConcurrentChecksPerHost(int maxConcurrentChecksPerHost) {
+        this.maxConcurrentChecksPerHost = maxConcurrentChecksPerHost;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public long getCompletedChecks() {
+        return completedChecks;
+    }
+
+    public void setCompletedChecks(long completedChecks) {
+        this.completedChecks = completedChecks;
+    }
+
+    public long getCoalescedChecks() {
+        return coalescedChecks;
+    }
+
+    public void setCoalescedChecks(long coalescedChecks) {
+        this.coalescedChecks = coalescedChecks;
+    }
+
+    public long getSkippedChecks() {
+        return skippedChecks;
+    }
+
+    public void setSkippedChecks(long skippedChecks) {
+        this.skippedChecks = skippedChecks;
+    }
+
+    public String getSchedulingMode() {
+        return schedulingMode;
+    }
+
+    public void setSchedulingMode(String schedulingMode) {
+        this.schedulingMode = schedulingMode;
+    }
+
+    public int getScheduledTargets() {
+        return scheduledTargets;
+    }
+
+    public void setScheduledTargets(int scheduledTargets) {
+        this.scheduledTargets = scheduledTargets;
+    }
+
+    public long getScheduledProbesFired() {
+        return scheduledProbesFired;
+    }
+
+    public void setScheduledProbesFired(long scheduledProbesFired) {
+        this.scheduledProbesFired = scheduledProbesFired;
+    }
+
+    public long getSweepsCompleted() {
+        return sweepsCompleted;
+    }
+
+    public void setSweepsCompleted(long sweepsCompleted) {
+        this.sweepsCompleted = sweepsCompleted;
+    }
+
+    public int getLastSweepTargets() {
+        return lastSweepTargets;
+    }
+
+    public void setLastSweepTargets(int lastSweepTargets) {
+        this.lastSweepTargets = lastSweepTargets;
+    }
+
+    public int getLastSweepFailures() {
+        return lastSweepFailures;
+    }
+
+    public void setLastSweepFailures(int lastSweepFailures) {
+        this.lastSweepFailures = lastSweepFailures;
+    }
+
+    public long getLastSweepDurationMs() {
+        return lastSweepDurationMs;
+    }
+
+    public void setLastSweepDurationMs(long lastSweepDurationMs) {
+        this.lastSweepDurationMs = lastSweepDurationMs;
+    }
+
+    public Instant getLastSweepCompletedAt() {
+        return lastSweepCompletedAt;
+    }
+
+    public void setLastSweepCompletedAt(Instant lastSweepCompletedAt) {
+        this.lastSweepCompletedAt = lastSweepCompletedAt;
+    }
+}
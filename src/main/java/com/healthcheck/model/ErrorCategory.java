@@ -12,5 +12,6 @@ public enum ErrorCategory {
     INVALID_JSON,
     SLOW_RESPONSE,
     CIRCUIT_OPEN,
+    THROTTLED,
     UNKNOWN
 }
@@ -1,117 +1,327 @@
 package com.healthcheck.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-public class HealthCheckResult {
-    private UUID targetId;
-    private HealthStatus status;
-    private Integer httpStatus;
-    private long latencyMs;
-    private String responseBodyPreview;
-    private Map<String, List<String>> responseHeaders;
-    private ErrorCategory errorCategory;
-    private String errorMessage;
-    private Instant timestamp;
-    private int attempts;
-    private boolean fromCache;
-    private Instant cachedAt;
+/**
+ * Immutable outcome of one check. Stored results are never modified once built; a check answered from the
+ * cache returns {@link #servedFromCache()} or, past expiry, {@link #servedStale()}: views that share every
+ * field with the stored result and are created once per stored result, so a cache hit allocates nothing.
+ * Freshness is decided against {@link #getExpiresAtNanos()}, a {@link System#nanoTime()} deadline fixed when
+ * the result is built.
+ */
+public final class HealthCheckResult {
+    private final UUID targetId;
+    private final HealthStatus status;
+    private final Integer httpStatus;
+    private final long latencyMs;
+    private final Long dnsMs;
+    private final Long ttfbMs;
+    private final Long downloadMs;
+    private final long bytesRead;
+    private final String responseBodyPreview;
+    private final Map<String, List<String>> responseHeaders;
+    private final ErrorCategory errorCategory;
+    private final String errorMessage;
+    private final Instant timestamp;
+    private final int attempts;
+    private final boolean fromCache;
+    private final Instant cachedAt;
+    private final boolean stale;
+    private final long expiresAtNanos;
 
-    public UUID getTargetId() {
-        return targetId;
+    // racy but idempotent: every field of a view is final, so a thread that sees one sees it fully built
+    private HealthCheckResult cacheView;
+    private HealthCheckResult staleView;
+
+    private HealthCheckResult(Builder builder) {
+        this.targetId = builder.targetId;
+        this.status = builder.status;
+        this.httpStatus = builder.httpStatus;
+        this.latencyMs = builder.latencyMs;
+        this.dnsMs = builder.dnsMs;
+        this.ttfbMs = builder.ttfbMs;
+        this.downloadMs = builder.downloadMs;
+        this.bytesRead = builder.bytesRead;
+        this.responseBodyPreview = builder.responseBodyPreview;
+        this.responseHeaders = copyOf(builder.responseHeaders);
+        this.errorCategory = builder.errorCategory;
+        this.errorMessage = builder.errorMessage;
+        this.timestamp = builder.timestamp;
+        this.attempts = builder.attempts;
+        this.fromCache = false;
+        this.cachedAt = null;
+        this.stale = false;
+        this.expiresAtNanos = builder.expiresAtNanos;
     }
 
-    public void setTargetId(UUID targetId) {
-        this.targetId = targetId;
+    private HealthCheckResult(HealthCheckResult stored, boolean stale) {
+        this.targetId = stored.targetId;
+        this.status = stored.status;
+        this.httpStatus = stored.httpStatus;
+        this.latencyMs = stored.latencyMs;
+        this.dnsMs = stored.dnsMs;
+        this.ttfbMs = stored.ttfbMs;
+        this.downloadMs = stored.downloadMs;
+        this.bytesRead = stored.bytesRead;
+        this.responseBodyPreview = stored.responseBodyPreview;
+        this.responseHeaders = stored.responseHeaders;
+        this.errorCategory = stored.errorCategory;
+        this.errorMessage = stored.errorMessage;
+        this.timestamp = stored.timestamp;
+        this.attempts = stored.attempts;
+        this.fromCache = true;
+        this.cachedAt = stored.timestamp;
+        this.stale = stale;
+        this.expiresAtNanos = stored.expiresAtNanos;
     }
 
-    public HealthStatus getStatus() {
-        return status;
+    private static Map<String, List<String>> copyOf(Map<String, List<String>> headers) {
+        if (headers == null) {
+            return null;
+        }
+        Map<String, List<String>> copy = new HashMap<>(headers.size() * 2);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Map.copyOf(copy);
     }
 
-    public void setStatus(HealthStatus status) {
-        this.status = status;
+    public static Builder builder() {
+        return new Builder();
     }
 
-    public Integer getHttpStatus() {
-        return httpStatus;
+    public Builder toBuilder() {
+        return new Builder()
+            .targetId(targetId)
+            .status(status)
+            .httpStatus(httpStatus)
+            .latencyMs(latencyMs)
+            .dnsMs(dnsMs)
+            .ttfbMs(ttfbMs)
+            .downloadMs(downloadMs)
+            .bytesRead(bytesRead)
+            .responseBodyPreview(responseBodyPreview)
+            .responseHeaders(responseHeaders)
+            .errorCategory(errorCategory)
+            .errorMessage(errorMessage)
+            .timestamp(timestamp)
+            .attempts(attempts)
+            .expiresAtNanos(expiresAtNanos);
     }
 
-    public void setHttpStatus(Integer httpStatus) {
-        this.httpStatus = httpStatus;
+    /**
+     * This result as returned to a caller the cache answered: {@code fromCache} set and {@code cachedAt} equal
+     * to the timestamp of the probe that produced it.
+     */
+    public HealthCheckResult servedFromCache() {
+        HealthCheckResult view = cacheView;
+        if (view == null) {
+            view = new HealthCheckResult(this, false);
+            cacheView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Like {@link #servedFromCache()}, with {@code stale} set: the result has expired and a refresh is under way.
+     */
+    public HealthCheckResult servedStale() {
+        HealthCheckResult view = staleView;
+        if (view == null) {
+            view = new HealthCheckResult(this, true);
+            staleView = view;
+        }
+        return view;
+    }
+
+    /**
+     * Whether the result may still be served from the cache at {@code nowNanos}, a {@link System#nanoTime()}
+     * reading.
+     */
+    public boolean isFreshAt(long nowNanos) {
+        return nowNanos - expiresAtNanos < 0;
+    }
+
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
     }
 
     public long getLatencyMs() {
         return latencyMs;
     }
 
-    public void setLatencyMs(long latencyMs) {
-        this.latencyMs = latencyMs;
+    public Long getDnsMs() {
+        return dnsMs;
     }
 
-    public String getResponseBodyPreview() {
-        return responseBodyPreview;
+    public Long getTtfbMs() {
+        return ttfbMs;
     }
 
-    public void setResponseBodyPreview(String responseBodyPreview) {
-        this.responseBodyPreview = responseBodyPreview;
+    public Long getDownloadMs() {
+        return downloadMs;
     }
 
-    public Map<String, List<String>> getResponseHeaders() {
-        return responseHeaders;
+    public long getBytesRead() {
+        return bytesRead;
     }
 
-    public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
-        this.responseHeaders = responseHeaders;
+    public String getResponseBodyPreview() {
+        return responseBodyPreview;
     }
 
-    public ErrorCategory getErrorCategory() {
-        return errorCategory;
+    public Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
     }
 
-    public void setErrorCategory(ErrorCategory errorCategory) {
-        this.errorCategory = errorCategory;
+    public ErrorCategory getErrorCategory() {
+        return errorCategory;
     }
 
     public String getErrorMessage() {
         return errorMessage;
     }
 
-    public void setErrorMessage(String errorMessage) {
-        this.errorMessage = errorMessage;
-    }
-
     public Instant getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(Instant timestamp) {
-        this.timestamp = timestamp;
-    }
-
     public int getAttempts() {
         return attempts;
     }
 
-    public void setAttempts(int attempts) {
-        this.attempts = attempts;
-    }
-
     public boolean isFromCache() {
         return fromCache;
     }
 
-    public void setFromCache(boolean fromCache) {
-        this.fromCache = fromCache;
-    }
-
     public Instant getCachedAt() {
         return cachedAt;
     }
 
-    public void setCachedAt(Instant cachedAt) {
-        this.cachedAt = cachedAt;
+    public boolean isStale() {
+        return stale;
+    }
+
+    @JsonIgnore
+    public long getExpiresAtNanos() {
+        return expiresAtNanos;
+    }
+
+    public static final class Builder {
+        private UUID targetId;
+        private HealthStatus status;
+        private Integer httpStatus;
+        private long latencyMs;
+        private Long dnsMs;
+        private Long ttfbMs;
+        private Long downloadMs;
+        private long bytesRead;
+        private String responseBodyPreview;
+        private Map<String, List<String>> responseHeaders;
+        private ErrorCategory errorCategory;
+        private String errorMessage;
+        private Instant timestamp;
+        private int attempts;
+        private long expiresAtNanos = System.nanoTime();
+
+        private Builder() {
+        }
+
+        public Builder targetId(UUID targetId) {
+            this.targetId = targetId;
+            return this;
+        }
+
+        public Builder status(HealthStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder httpStatus(Integer httpStatus) {
+            this.httpStatus = httpStatus;
+            return this;
+        }
+
+        public Builder latencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+            return this;
+        }
+
+        public Builder dnsMs(Long dnsMs) {
+            this.dnsMs = dnsMs;
+            return this;
+        }
+
+        public Builder ttfbMs(Long ttfbMs) {
+            this.ttfbMs = ttfbMs;
+            return this;
+        }
+
+        public Builder downloadMs(Long downloadMs) {
+            this.downloadMs = downloadMs;
+            return this;
+        }
+
+        public Builder bytesRead(long bytesRead) {
+            this.bytesRead = bytesRead;
+            return this;
+        }
+
+        public Builder responseBodyPreview(String responseBodyPreview) {
+            this.responseBodyPreview = responseBodyPreview;
+            return this;
+        }
+
+        public Builder responseHeaders(Map<String, List<String>> responseHeaders) {
+            this.responseHeaders = responseHeaders;
+            return this;
+        }
+
+        public Builder errorCategory(ErrorCategory errorCategory) {
+            this.errorCategory = errorCategory;
+            return this;
+        }
+
+        public Builder errorMessage(String errorMessage) {
+            this.errorMessage = errorMessage;
+            return this;
+        }
+
+        public Builder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder attempts(int attempts) {
+            this.attempts = attempts;
+            return this;
+        }
+
+        /**
+         * {@link System#nanoTime()} at which the result stops being fresh. Defaults to when the builder was
+         * created, so a result built without one is never served from the cache.
+         */
+        public Builder expiresAtNanos(long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+            return this;
+        }
+
+        public HealthCheckResult build() {
+            return new HealthCheckResult(this);
+        }
     }
 }
@@ -4,5 +4,6 @@ public enum HealthStatus {
     UP,
     DOWN,
     DEGRADED,
-    UNKNOWN
+    UNKNOWN,
+    SKIPPED
 }
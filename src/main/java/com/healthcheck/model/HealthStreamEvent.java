@@ -0,0 +1,79 @@
+package com.healthcheck.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class HealthStreamEvent {
+    private UUID targetId;
+    private HealthStatus status;
+    private HealthStatus previousStatus;
+    private ErrorCategory errorCategory;
+    private ErrorCategory previousErrorCategory;
+    private Integer httpStatus;
+    private long latencyMs;
+    private Instant timestamp;
+
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(UUID targetId) {
+        this.targetId = targetId;
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HealthStatus status) {
+        this.status = status;
+    }
+
+    public HealthStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(HealthStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public ErrorCategory getErrorCategory() {
+        return errorCategory;
+    }
+
+    public void setErrorCategory(ErrorCategory errorCategory) {
+        this.errorCategory = errorCategory;
+    }
+
+    public ErrorCategory getPreviousErrorCategory() {
+        return previousErrorCategory;
+    }
+
+    public void setPreviousErrorCategory(ErrorCategory previousErrorCategory) {
+        this.previousErrorCategory = previousErrorCategory;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -5,10 +5,17 @@ import java.util.Map;
 
 public class HealthSummaryResponse {
     private Map<HealthStatus, Long> statusCounts;
+    private Map<ErrorCategory, Long> errorCategoryCounts;
     private Instant lastUpdated;
 
     public HealthSummaryResponse(Map<HealthStatus, Long> statusCounts, Instant lastUpdated) {
+        this(statusCounts, Map.of(), lastUpdated);
+    }
+
+    public HealthSummaryResponse(Map<HealthStatus, Long> statusCounts, Map<ErrorCategory, Long> errorCategoryCounts,
+                                 Instant lastUpdated) {
         this.statusCounts = statusCounts;
+        this.errorCategoryCounts = errorCategoryCounts;
         this.lastUpdated = lastUpdated;
     }
 
@@ -20,6 +27,14 @@ public class HealthSummaryResponse {
         this.statusCounts = statusCounts;
     }
 
+    public Map<ErrorCategory, Long> getErrorCategoryCounts() {
+        return errorCategoryCounts;
+    }
+
+    public void setErrorCategoryCounts(Map<ErrorCategory, Long> errorCategoryCounts) {
+        this.errorCategoryCounts = errorCategoryCounts;
+    }
+
     public Instant getLastUpdated() {
         return lastUpdated;
     }
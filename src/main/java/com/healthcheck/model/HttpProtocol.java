@@ -0,0 +1,5 @@
+package com.healthcheck.model;
+
+public enum HttpProtocol {
+    HTTP_1_1, HTTP_2, H2C
+}
@@ -0,0 +1,34 @@
+package com.healthcheck.model;
+
+import java.util.List;
+import java.util.UUID;
+
+public class LatencyResponse {
+    private UUID targetId;
+    private int targets;
+    private List<LatencyWindowStats> windows;
+
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(UUID targetId) {
+        this.targetId = targetId;
+    }
+
+    public int getTargets() {
+        return targets;
+    }
+
+    public void setTargets(int targets) {
+        this.targets = targets;
+    }
+
+    public List<LatencyWindowStats> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<LatencyWindowStats> windows) {
+        this.windows = windows;
+    }
+}
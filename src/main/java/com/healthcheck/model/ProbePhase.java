@@ -0,0 +1,10 @@
+package com.healthcheck.model;
+
+/**
+ * Part of a probe a timing or a slow threshold refers to. {@code TTFB} runs from sending the request to
+ * receiving the response headers, so it includes connecting and the TLS handshake when the request opened a
+ * new connection; {@code DOWNLOAD} runs from the headers to the end of the body as far as it was read.
+ */
+public enum ProbePhase {
+    TOTAL, DNS, TTFB, DOWNLOAD
+}
@@ -0,0 +1,60 @@
+package com.healthcheck.model;
+
+import java.time.Instant;
+
+public class ResultHistoryEntry {
+    private Instant timestamp;
+    private HealthStatus status;
+    private Integer httpStatus;
+    private long latencyMs;
+    private ErrorCategory errorCategory;
+    private int attempts;
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HealthStatus status) {
+        this.status = status;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public ErrorCategory getErrorCategory() {
+        return errorCategory;
+    }
+
+    public void setErrorCategory(ErrorCategory errorCategory) {
+        this.errorCategory = errorCategory;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+}
@@ -0,0 +1,6 @@
+package com.healthcheck.model;
+
+public enum ResultView {
+    FULL,
+    COMPACT
+}
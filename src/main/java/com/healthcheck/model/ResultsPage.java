@@ -0,0 +1,33 @@
+package com.healthcheck.model;
+
+import java.util.Map;
+import java.util.UUID;
+
+public class ResultsPage {
+    private Map<UUID, HealthCheckResult> results;
+    private UUID nextCursor;
+
+    public ResultsPage() {
+    }
+
+    public ResultsPage(Map<UUID, HealthCheckResult> results, UUID nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    public Map<UUID, HealthCheckResult> getResults() {
+        return results;
+    }
+
+    public void setResults(Map<UUID, HealthCheckResult> results) {
+        this.results = results;
+    }
+
+    public UUID getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(UUID nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
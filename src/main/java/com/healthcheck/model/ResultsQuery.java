@@ -0,0 +1,77 @@
+package com.healthcheck.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+public class ResultsQuery {
+    @Schema(description = "Only results with one of these statuses")
+    private Set<HealthStatus> status;
+
+    @Schema(description = "Only results with one of these error categories")
+    private Set<ErrorCategory> errorCategory;
+
+    @Schema(description = "Only results checked at or after this instant (ISO-8601)")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant since;
+
+    @Schema(description = "Target ID after which the page starts, from the previous page's X-Next-Cursor header")
+    private UUID cursor;
+
+    @Schema(description = "Maximum results per page; all matching results when omitted")
+    private Integer limit;
+
+    @Schema(description = "COMPACT omits responseHeaders and responseBodyPreview", defaultValue = "FULL")
+    private ResultView view = ResultView.FULL;
+
+    public Set<HealthStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(Set<HealthStatus> status) {
+        this.status = status;
+    }
+
+    public Set<ErrorCategory> getErrorCategory() {
+        return errorCategory;
+    }
+
+    public void setErrorCategory(Set<ErrorCategory> errorCategory) {
+        this.errorCategory = errorCategory;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    public void setSince(Instant since) {
+        this.since = since;
+    }
+
+    public UUID getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(UUID cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public ResultView getView() {
+        return view;
+    }
+
+    public void setView(ResultView view) {
+        this.view = view;
+    }
+}
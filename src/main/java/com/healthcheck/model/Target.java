@@ -18,7 +18,12 @@ public class Target {
     private boolean expectJson;
     private String expectedBodyContains;
     private Duration slowThreshold;
+    private ProbePhase slowThresholdPhase;
     private int maxRetries;
+    private Duration checkInterval;
+    private HttpProtocol protocol;
+    private String externalKey;
+    private Double rateLimit;
 
     public Target(UUID id, String name, String url, HttpMethod method, Map<String, String> headers,
                   String requestBody, String contentType, Duration timeout, int expectedStatusMin,
@@ -140,6 +145,14 @@ public class Target {
         this.slowThreshold = slowThreshold;
     }
 
+    public ProbePhase getSlowThresholdPhase() {
+        return slowThresholdPhase;
+    }
+
+    public void setSlowThresholdPhase(ProbePhase slowThresholdPhase) {
+        this.slowThresholdPhase = slowThresholdPhase;
+    }
+
     public int getMaxRetries() {
         return maxRetries;
     }
@@ -147,4 +160,36 @@ public class Target {
     public void setMaxRetries(int maxRetries) {
         this.maxRetries = maxRetries;
     }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(HttpProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getExternalKey() {
+        return externalKey;
+    }
+
+    public void setExternalKey(String externalKey) {
+        this.externalKey = externalKey;
+    }
+
+    public Double getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(Double rateLimit) {
+        this.rateLimit = rateLimit;
+    }
 }
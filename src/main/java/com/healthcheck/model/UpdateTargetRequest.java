@@ -1,5 +1,6 @@
 package com.healthcheck.model;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 
@@ -34,9 +35,18 @@ public class UpdateTargetRequest {
 
     private Duration slowThreshold;
 
+    private ProbePhase slowThresholdPhase;
+
     @Min(0)
     private Integer maxRetries;
 
+    private Duration checkInterval;
+
+    private HttpProtocol protocol;
+
+    @DecimalMin("0.0")
+    private Double rateLimit;
+
     public String getName() {
         return name;
     }
@@ -133,6 +143,14 @@ public class UpdateTargetRequest {
         this.slowThreshold = slowThreshold;
     }
 
+    public ProbePhase getSlowThresholdPhase() {
+        return slowThresholdPhase;
+    }
+
+    public void setSlowThresholdPhase(ProbePhase slowThresholdPhase) {
+        this.slowThresholdPhase = slowThresholdPhase;
+    }
+
     public Integer getMaxRetries() {
         return maxRetries;
     }
@@ -140,4 +158,28 @@ public class UpdateTargetRequest {
     public void setMaxRetries(Integer maxRetries) {
         this.maxRetries = maxRetries;
     }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(HttpProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public Double getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(Double rateLimit) {
+        this.rateLimit = rateLimit;
+    }
 }
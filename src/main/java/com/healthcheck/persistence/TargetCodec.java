@@ -0,0 +1,145 @@
+package com.healthcheck.persistence;
+
+import com.healthcheck.model.HttpMethod;
+import com.healthcheck.model.HttpProtocol;
+import com.healthcheck.model.ProbePhase;
+import com.healthcheck.model.Target;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary form of a {@link Target}, big-endian so records written through {@link DataOutputStream} can be read
+ * straight from a mapped {@link ByteBuffer}. Strings are a length (-1 for null) followed by UTF-8 bytes,
+ * durations are nanoseconds with {@link Long#MIN_VALUE} for null, doubles use NaN for null, and enums are
+ * ordinal + 1 with 0 for null. Fields added after format version 1 are only read from records of a version
+ * that has them.
+ */
+final class TargetCodec {
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final HttpProtocol[] PROTOCOLS = HttpProtocol.values();
+    private static final ProbePhase[] PHASES = ProbePhase.values();
+    private static final long NO_DURATION = Long.MIN_VALUE;
+
+    static final byte VERSION = 3;
+
+    private TargetCodec() {
+    }
+
+    static void writeTarget(DataOutputStream out, Target target) throws IOException {
+        writeId(out, target.getId());
+        writeString(out, target.getName());
+        writeString(out, target.getUrl());
+        out.writeByte(target.getMethod() == null ? 0 : target.getMethod().ordinal() + 1);
+        Map<String, String> headers = target.getHeaders();
+        out.writeInt(headers == null ? -1 : headers.size());
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+        }
+        writeString(out, target.getRequestBody());
+        writeString(out, target.getContentType());
+        writeDuration(out, target.getTimeout());
+        out.writeInt(target.getExpectedStatusMin());
+        out.writeInt(target.getExpectedStatusMax());
+        out.writeBoolean(target.isExpectJson());
+        writeString(out, target.getExpectedBodyContains());
+        writeDuration(out, target.getSlowThreshold());
+        out.writeInt(target.getMaxRetries());
+        writeDuration(out, target.getCheckInterval());
+        out.writeByte(target.getProtocol() == null ? 0 : target.getProtocol().ordinal() + 1);
+        writeString(out, target.getExternalKey());
+        out.writeDouble(target.getRateLimit() == null ? Double.NaN : target.getRateLimit());
+        out.writeByte(target.getSlowThresholdPhase() == null ? 0 : target.getSlowThresholdPhase().ordinal() + 1);
+    }
+
+    static Target readTarget(ByteBuffer in, byte version) {
+        UUID id = readId(in);
+        String name = readString(in);
+        String url = readString(in);
+        int method = in.get();
+        int headerCount = in.getInt();
+        Map<String, String> headers = null;
+        if (headerCount >= 0) {
+            headers = new LinkedHashMap<>(Math.max(4, headerCount * 2));
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(readString(in), readString(in));
+            }
+        }
+        Target target = new Target(
+            id,
+            name,
+            url,
+            method == 0 ? null : METHODS[method - 1],
+            headers,
+            readString(in),
+            readString(in),
+            readDuration(in),
+            in.getInt(),
+            in.getInt(),
+            in.get() != 0,
+            readString(in),
+            readDuration(in),
+            in.getInt()
+        );
+        target.setCheckInterval(readDuration(in));
+        int protocol = in.get();
+        target.setProtocol(protocol == 0 ? null : PROTOCOLS[protocol - 1]);
+        target.setExternalKey(readString(in));
+        if (version >= 2) {
+            double rateLimit = in.getDouble();
+            target.setRateLimit(Double.isNaN(rateLimit) ? null : rateLimit);
+        }
+        if (version >= 3) {
+            int phase = in.get();
+            target.setSlowThresholdPhase(phase == 0 ? null : PHASES[phase - 1]);
+        }
+        return target;
+    }
+
+    static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readId(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDuration(DataOutputStream out, Duration value) throws IOException {
+        out.writeLong(value == null ? NO_DURATION : value.toNanos());
+    }
+
+    private static Duration readDuration(ByteBuffer in) {
+        long nanos = in.getLong();
+        return nanos == NO_DURATION ? null : Duration.ofNanos(nanos);
+    }
+}
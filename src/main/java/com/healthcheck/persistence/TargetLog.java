@@ -0,0 +1,271 @@
+package com.healthcheck.persistence;
+
+import com.healthcheck.model.Target;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable target registry: a snapshot of every target plus an append-only log of the creates, updates and
+ * deletes made since. Both files are read through a memory-mapped buffer on open.
+ * <pre>
+ *   targets.snap  [magic:4][version:1][count:4] target* [crc32 of everything before:4]
+ *   targets.wal   [magic:4][version:1] ([length:4][crc32:4][op:1][target | id])*
+ * </pre>
+ * Replaying the log stops at the first truncated or corrupt record, which is cut off so later appends follow
+ * the last good one. After {@code compactAfter} records the current state is written to a new snapshot and
+ * the log is emptied. Every log operation is idempotent, so a crash between those two steps only replays
+ * records the snapshot already contains. Files written by an older format version are read and rewritten in
+ * the current one on open.
+ */
+public final class TargetLog implements Closeable {
+    static final String SNAPSHOT_FILE = "targets.snap";
+    static final String LOG_FILE = "targets.wal";
+
+    private static final int SNAPSHOT_MAGIC = 0x48435354;
+    private static final int LOG_MAGIC = 0x4843574C;
+    private static final byte FORMAT_VERSION = TargetCodec.VERSION;
+    private static final int LOG_HEADER_BYTES = 5;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final Path snapshotPath;
+    private final Path logPath;
+    private final int compactAfter;
+    private final boolean syncWrites;
+    private final Map<UUID, Target> state;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(512);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+    private FileChannel log;
+    private int records;
+    private boolean outdated;
+
+    private TargetLog(Path directory, int compactAfter, boolean syncWrites) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.logPath = directory.resolve(LOG_FILE);
+        this.compactAfter = Math.max(1, compactAfter);
+        this.syncWrites = syncWrites;
+        this.state = new LinkedHashMap<>();
+    }
+
+    public static TargetLog open(Path directory, int compactAfter, boolean syncWrites) throws IOException {
+        Files.createDirectories(directory);
+        TargetLog targetLog = new TargetLog(directory, compactAfter, syncWrites);
+        targetLog.loadSnapshot();
+        targetLog.replayLog();
+        if (targetLog.outdated) {
+            targetLog.compact();
+        }
+        return targetLog;
+    }
+
+    /**
+     * Targets as of the last record written, in first-created order.
+     */
+    public synchronized List<Target> targets() {
+        return new ArrayList<>(state.values());
+    }
+
+    public synchronized void put(Target target) {
+        try {
+            recordOut.writeByte(PUT);
+            TargetCodec.writeTarget(recordOut, target);
+            append();
+            state.put(target.getId(), target);
+            compactIfDue();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to log target " + target.getId(), ex);
+        }
+    }
+
+    public synchronized void delete(UUID id) {
+        try {
+            recordOut.writeByte(DELETE);
+            TargetCodec.writeId(recordOut, id);
+            append();
+            state.remove(id);
+            compactIfDue();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to log deletion of target " + id, ex);
+        }
+    }
+
+    public synchronized void compact() throws IOException {
+        Path temp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeSnapshot(channel, state.values());
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.truncate(LOG_HEADER_BYTES);
+        if (outdated) {
+            log.write(logHeader(), 0);
+            outdated = false;
+        }
+        log.position(LOG_HEADER_BYTES);
+        log.force(true);
+        records = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (log == null) {
+            return;
+        }
+        try {
+            if (records > 0) {
+                compact();
+            }
+        } finally {
+            log.close();
+            log = null;
+        }
+    }
+
+    private void append() throws IOException {
+        try {
+            byte[] payload = recordBuffer.toByteArray();
+            crc.reset();
+            crc.update(payload);
+            ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+            record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            while (record.hasRemaining()) {
+                log.write(record);
+            }
+            if (syncWrites) {
+                log.force(false);
+            }
+        } finally {
+            recordBuffer.reset();
+        }
+        records++;
+    }
+
+    /**
+     * Runs after the caller has applied its record to {@code state}, so the snapshot that replaces the log
+     * always contains the record that triggered it.
+     */
+    private void compactIfDue() throws IOException {
+        if (records >= compactAfter) {
+            compact();
+        }
+    }
+
+    private void loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte version = buffer.limit() < 13 || buffer.getInt() != SNAPSHOT_MAGIC ? 0 : buffer.get();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Not a target snapshot: " + snapshotPath);
+            }
+            outdated |= version < FORMAT_VERSION;
+            crc.reset();
+            crc.update(buffer.duplicate().position(0).limit(buffer.limit() - 4));
+            if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+                throw new IOException("Target snapshot is corrupt: " + snapshotPath);
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                Target target = TargetCodec.readTarget(buffer, version);
+                state.put(target.getId(), target);
+            }
+        }
+    }
+
+    private void replayLog() throws IOException {
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = log.size();
+        if (size < LOG_HEADER_BYTES) {
+            log.truncate(0);
+            log.write(logHeader(), 0);
+            log.position(LOG_HEADER_BYTES);
+            return;
+        }
+        MappedByteBuffer buffer = log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        byte version = buffer.getInt() != LOG_MAGIC ? 0 : buffer.get();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Not a target log: " + logPath);
+        }
+        outdated |= version < FORMAT_VERSION;
+        while (buffer.remaining() >= 8) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expected) {
+                buffer.position(start);
+                break;
+            }
+            apply(payload, version);
+            buffer.position(buffer.position() + length);
+            records++;
+        }
+        long end = buffer.position();
+        if (end < size) {
+            log.truncate(end);
+        }
+        log.position(end);
+    }
+
+    private void apply(ByteBuffer payload, byte version) throws IOException {
+        byte op = payload.get();
+        if (op == PUT) {
+            Target target = TargetCodec.readTarget(payload, version);
+            state.put(target.getId(), target);
+        } else if (op == DELETE) {
+            state.remove(TargetCodec.readId(payload));
+        } else {
+            throw new IOException("Unknown target log operation " + op + " in " + logPath);
+        }
+    }
+
+    private static ByteBuffer logHeader() {
+        return ByteBuffer.allocate(LOG_HEADER_BYTES).putInt(LOG_MAGIC).put(FORMAT_VERSION).flip();
+    }
+
+    private static void writeSnapshot(FileChannel channel, Collection<Target> targets) throws IOException {
+        OutputStream sink = Channels.newOutputStream(channel);
+        CheckedOutputStream checked = new CheckedOutputStream(sink, new CRC32());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 64 * 1024));
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(targets.size());
+        for (Target target : targets) {
+            TargetCodec.writeTarget(out, target);
+        }
+        out.flush();
+        new DataOutputStream(sink).writeInt((int) checked.getChecksum().getValue());
+    }
+}
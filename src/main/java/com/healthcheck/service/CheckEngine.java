@@ -0,0 +1,240 @@
+package com.healthcheck.service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs health checks on a worker pool while enforcing a global and a per-host concurrency limit.
+ * Checks that cannot start yet are parked in per-host queues; hosts with capacity are served
+ * round-robin so one slow vendor cannot monopolise the global permits.
+ */
+public class CheckEngine {
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final int maxConcurrent;
+    private final int maxPerHost;
+
+    private final Object lock = new Object();
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final Deque<HostQueue> readyHosts = new ArrayDeque<>();
+    private int inFlight;
+    private int queued;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong sweepsCompleted = new AtomicLong();
+    private volatile long lastSweepDurationMs;
+    private volatile int lastSweepTargets;
+    private volatile int lastSweepFailures;
+    private volatile long lastSweepCompletedAtMillis;
+
+    public CheckEngine(HealthCheckProperties properties) {
+        ExecutorService virtual = properties.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null
+            ? virtual
+            : Executors.newFixedThreadPool(Math.max(1, properties.getWorkerThreads()), new WorkerThreadFactory());
+        this.maxConcurrent = Math.max(1, properties.getMaxConcurrentChecks());
+        this.maxPerHost = Math.max(1, properties.getMaxConcurrentChecksPerHost());
+    }
+
+    /**
+     * Queues a check against {@code host}. The supplier is invoked on a worker thread once both a
+     * global and a host permit are available; the permits are held until the returned future completes.
+     */
+    public <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> task) {
+        PendingCheck<T> check = new PendingCheck<>(host, task);
+        List<PendingCheck<?>> startable;
+        synchronized (lock) {
+            HostQueue queue = hosts.computeIfAbsent(host, key -> new HostQueue());
+            queue.pending.add(check);
+            queued++;
+            markReady(queue);
+            startable = drain();
+        }
+        start(startable);
+        return check.result;
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    public void recordSweep(int targetCount, int failures, long durationNanos) {
+        lastSweepTargets = targetCount;
+        lastSweepFailures = failures;
+        lastSweepDurationMs = durationNanos / 1_000_000;
+        lastSweepCompletedAtMillis = System.currentTimeMillis();
+        sweepsCompleted.incrementAndGet();
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getSweepsCompleted() {
+        return sweepsCompleted.get();
+    }
+
+    public long getLastSweepDurationMs() {
+        return lastSweepDurationMs;
+    }
+
+    public int getLastSweepTargets() {
+        return lastSweepTargets;
+    }
+
+    public int getLastSweepFailures() {
+        return lastSweepFailures;
+    }
+
+    public long getLastSweepCompletedAtMillis() {
+        return lastSweepCompletedAtMillis;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void markReady(HostQueue queue) {
+        if (!queue.ready && !queue.pending.isEmpty() && queue.inFlight < maxPerHost) {
+            queue.ready = true;
+            readyHosts.add(queue);
+        }
+    }
+
+    private List<PendingCheck<?>> drain() {
+        List<PendingCheck<?>> startable = null;
+        while (inFlight < maxConcurrent && !readyHosts.isEmpty()) {
+            HostQueue queue = readyHosts.poll();
+            queue.ready = false;
+            PendingCheck<?> check = queue.pending.poll();
+            if (check == null) {
+                continue;
+            }
+            queue.inFlight++;
+            inFlight++;
+            queued--;
+            if (startable == null) {
+                startable = new ArrayList<>();
+            }
+            startable.add(check);
+            markReady(queue);
+        }
+        return startable;
+    }
+
+    private void start(List<PendingCheck<?>> startable) {
+        if (startable == null) {
+            return;
+        }
+        for (PendingCheck<?> check : startable) {
+            executor.execute(() -> run(check));
+        }
+    }
+
+    private <T> void run(PendingCheck<T> check) {
+        CompletableFuture<T> future;
+        try {
+            future = check.task.get();
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        future.whenComplete((value, error) -> {
+            release(check.host);
+            if (error != null) {
+                check.result.completeExceptionally(error);
+            } else {
+                check.result.complete(value);
+            }
+        });
+    }
+
+    private void release(String host) {
+        completed.incrementAndGet();
+        List<PendingCheck<?>> startable;
+        synchronized (lock) {
+            HostQueue queue = hosts.get(host);
+            queue.inFlight--;
+            inFlight--;
+            markReady(queue);
+            if (queue.inFlight == 0 && queue.pending.isEmpty()) {
+                hosts.remove(host);
+            }
+            startable = drain();
+        }
+        start(startable);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static final class HostQueue {
+        private final Deque<PendingCheck<?>> pending = new ArrayDeque<>();
+        private int inFlight;
+        private boolean ready;
+    }
+
+    private static final class PendingCheck<T> {
+        private final String host;
+        private final Supplier<CompletableFuture<T>> task;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PendingCheck(String host, Supplier<CompletableFuture<T>> task) {
+            this.host = host;
+            this.task = task;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "health-check-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.ProbePhase;
+import com.healthcheck.model.Target;
+import com.healthcheck.transport.ProbeTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the check pipeline. Without per-target tags every meter is registered up front and
+ * indexed by status and error category, so recording never looks anything up in the registry. With
+ * {@code healthcheck.metrics-per-target-tags} each call resolves a meter tagged with the target id instead,
+ * and a deleted target's meters are removed. Probes still in flight when their target is deleted record
+ * nothing, so they cannot register its meters again. {@link #NOOP} records nothing and is used when metrics are off.
+ */
+class CheckMetrics {
+    static final CheckMetrics NOOP = new CheckMetrics();
+
+    private static final HealthStatus[] STATUSES = HealthStatus.values();
+    private static final ErrorCategory[] CATEGORIES = ErrorCategory.values();
+    private static final ProbePhase[] PHASES = ProbePhase.values();
+
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final boolean perTarget;
+    private final Map<UUID, ?> targets;
+    private final Counter[][] probes;
+    private final Timer[][] attempts;
+    private final Timer[] phases;
+    private final Counter[] retries;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheStale;
+    private final Counter breakerTrips;
+    private final Timer sweeps;
+    private final Counter scheduledProbes;
+
+    private CheckMetrics() {
+        this.enabled = false;
+        this.registry = null;
+        this.perTarget = false;
+        this.targets = null;
+        this.probes = null;
+        this.attempts = null;
+        this.phases = null;
+        this.retries = null;
+        this.cacheHits = null;
+        this.cacheMisses = null;
+        this.cacheStale = null;
+        this.breakerTrips = null;
+        this.sweeps = null;
+        this.scheduledProbes = null;
+    }
+
+    CheckMetrics(MeterRegistry registry, boolean perTarget, Map<UUID, ?> targets) {
+        this.enabled = true;
+        this.registry = registry;
+        this.perTarget = perTarget;
+        this.targets = targets;
+        if (perTarget) {
+            this.probes = null;
+            this.attempts = null;
+            this.phases = null;
+            this.retries = null;
+            this.cacheHits = null;
+            this.cacheMisses = null;
+            this.cacheStale = null;
+            this.breakerTrips = null;
+        } else {
+            this.probes = new Counter[STATUSES.length][CATEGORIES.length];
+            this.attempts = new Timer[STATUSES.length][CATEGORIES.length];
+            this.phases = new Timer[PHASES.length];
+            this.retries = new Counter[CATEGORIES.length];
+            for (HealthStatus status : STATUSES) {
+                for (ErrorCategory category : CATEGORIES) {
+                    probes[status.ordinal()][category.ordinal()] = probeCounter(outcome(status, category));
+                    attempts[status.ordinal()][category.ordinal()] = attemptTimer(outcome(status, category));
+                }
+            }
+            for (ProbePhase phase : PHASES) {
+                phases[phase.ordinal()] = phaseTimer(Tags.of("phase", phase.name()));
+            }
+            for (ErrorCategory category : CATEGORIES) {
+                retries[category.ordinal()] = retryCounter(Tags.of("category", category.name()));
+            }
+            this.cacheHits = cacheCounter(Tags.of("result", "hit"));
+            this.cacheMisses = cacheCounter(Tags.of("result", "miss"));
+            this.cacheStale = cacheCounter(Tags.of("result", "stale"));
+            this.breakerTrips = breakerCounter(Tags.empty());
+        }
+        this.sweeps = Timer.builder("healthcheck.sweep.duration")
+            .description("Time to check every target in one scheduled sweep")
+            .register(registry);
+        this.scheduledProbes = Counter.builder("healthcheck.schedule.fired")
+            .description("Probes started by the per-target timing wheel")
+            .register(registry);
+    }
+
+    /**
+     * Registers the gauges, which read their values from the given objects when scraped.
+     */
+    void bindGauges(CheckEngine engine, Map<UUID, Target> targets, Map<UUID, CircuitBreakerState> breakers,
+                    Map<UUID, ?> schedules) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("healthcheck.probes.in_flight", engine, CheckEngine::getInFlight)
+            .description("Checks currently running")
+            .register(registry);
+        Gauge.builder("healthcheck.probes.queued", engine, CheckEngine::getQueued)
+            .description("Checks waiting for a concurrency slot")
+            .register(registry);
+        Gauge.builder("healthcheck.targets", targets, Map::size)
+            .description("Registered targets")
+            .register(registry);
+        Gauge.builder("healthcheck.schedule.targets", schedules, Map::size)
+            .description("Targets on the per-target timing wheel")
+            .register(registry);
+        Gauge.builder("healthcheck.breakers.open", breakers, CheckMetrics::countOpen)
+            .description("Targets whose circuit breaker is open or half-open")
+            .register(registry);
+    }
+
+    void cacheHit(UUID targetId) {
+        if (!enabled) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> cacheCounter(Tags.of("result", "hit", "target", targetId.toString())),
+                Counter::increment);
+        } else {
+            cacheHits.increment();
+        }
+    }
+
+    void cacheMiss(UUID targetId) {
+        if (!enabled) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> cacheCounter(Tags.of("result", "miss", "target", targetId.toString())),
+                Counter::increment);
+        } else {
+            cacheMisses.increment();
+        }
+    }
+
+    void cacheStale(UUID targetId) {
+        if (!enabled) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> cacheCounter(Tags.of("result", "stale", "target", targetId.toString())),
+                Counter::increment);
+        } else {
+            cacheStale.increment();
+        }
+    }
+
+    void attempt(UUID targetId, HealthStatus status, ErrorCategory category, long elapsedNanos) {
+        if (!enabled || status == null || category == null) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> attemptTimer(outcome(status, category).and("target", targetId.toString())),
+                timer -> timer.record(elapsedNanos, TimeUnit.NANOSECONDS));
+        } else {
+            attempts[status.ordinal()][category.ordinal()].record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records each phase the transport timed; phases it did not observe are left out.
+     */
+    void phases(UUID targetId, ProbeTimings timings) {
+        if (!enabled || timings == null) {
+            return;
+        }
+        for (ProbePhase phase : PHASES) {
+            long nanos = timings.nanos(phase);
+            if (nanos < 0) {
+                continue;
+            }
+            if (perTarget) {
+                forTarget(targetId, () -> phaseTimer(Tags.of("phase", phase.name(), "target", targetId.toString())),
+                    timer -> timer.record(nanos, TimeUnit.NANOSECONDS));
+            } else {
+                phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    void probe(UUID targetId, HealthStatus status, ErrorCategory category) {
+        if (!enabled || status == null || category == null) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> probeCounter(outcome(status, category).and("target", targetId.toString())),
+                Counter::increment);
+        } else {
+            probes[status.ordinal()][category.ordinal()].increment();
+        }
+    }
+
+    void retry(UUID targetId, ErrorCategory category) {
+        if (!enabled || category == null) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> retryCounter(Tags.of("category", category.name(), "target", targetId.toString())),
+                Counter::increment);
+        } else {
+            retries[category.ordinal()].increment();
+        }
+    }
+
+    void breakerOpened(UUID targetId) {
+        if (!enabled) {
+            return;
+        }
+        if (perTarget) {
+            forTarget(targetId, () -> breakerCounter(Tags.of("target", targetId.toString())), Counter::increment);
+        } else {
+            breakerTrips.increment();
+        }
+    }
+
+    void sweep(long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        sweeps.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void scheduledProbe() {
+        if (!enabled) {
+            return;
+        }
+        scheduledProbes.increment();
+    }
+
+    void targetRemoved(UUID targetId) {
+        if (!enabled || !perTarget) {
+            return;
+        }
+        String id = targetId.toString();
+        for (Meter meter : registry.getMeters()) {
+            if (meter.getId().getName().startsWith("healthcheck.") && id.equals(meter.getId().getTag("target"))) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    /**
+     * Records into a target's meter only while the target is registered. {@link #targetRemoved} runs after the
+     * target leaves {@code targets}, so a meter registered by a probe that raced the delete is either removed
+     * there or, if the target was already gone, by the check that follows registration here.
+     */
+    private <M extends Meter> void forTarget(UUID targetId, Supplier<M> meter, Consumer<M> record) {
+        if (!targets.containsKey(targetId)) {
+            return;
+        }
+        M resolved = meter.get();
+        record.accept(resolved);
+        if (!targets.containsKey(targetId)) {
+            registry.remove(resolved);
+        }
+    }
+
+    private static double countOpen(Map<UUID, CircuitBreakerState> breakers) {
+        int open = 0;
+        for (CircuitBreakerState breaker : breakers.values()) {
+            if (breaker.getState() != CircuitBreakerState.State.CLOSED) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    private Counter probeCounter(Tags tags) {
+        return Counter.builder("healthcheck.probes")
+            .description("Stored check results, including circuit-open short circuits")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Timer attemptTimer(Tags tags) {
+        return Timer.builder("healthcheck.transport.latency")
+            .description("Duration of single probe attempts by outcome")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Timer phaseTimer(Tags tags) {
+        return Timer.builder("healthcheck.transport.phase")
+            .description("Duration of the phases of probe attempts that got a response")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Counter retryCounter(Tags tags) {
+        return Counter.builder("healthcheck.retries")
+            .description("Probe attempts retried, by the error category that caused the retry")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Counter cacheCounter(Tags tags) {
+        return Counter.builder("healthcheck.cache")
+            .description("Non-forced checks answered from the result cache (hit), answered with an expired result (stale) or probed (miss)")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private Counter breakerCounter(Tags tags) {
+        return Counter.builder("healthcheck.breaker.trips")
+            .description("Times a circuit breaker opened")
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static Tags outcome(HealthStatus status, ErrorCategory category) {
+        return Tags.of("status", status.name(), "category", category.name());
+    }
+}
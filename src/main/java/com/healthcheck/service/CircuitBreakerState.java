@@ -1,32 +1,209 @@
 package com.healthcheck.service;
 
-import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-target circuit breaker whose whole state lives in one {@code long}, updated by CAS:
+ * <pre>
+ *   [state:2][count:20][value:42]
+ *   CLOSED     count = consecutive failures
+ *   OPEN       count = consecutive failures, value = deadline (ms on the monotonic clock since creation)
+ *   HALF_OPEN  count = trial probes admitted, value = trial probes that succeeded
+ * </pre>
+ * Once the open deadline passes, the first caller moves the breaker to HALF_OPEN and up to
+ * {@code halfOpenTrials} probes are let through; that many successes close it, any failure re-opens it.
+ */
 public class CircuitBreakerState {
-    private int consecutiveFailures;
-    private Instant openUntil;
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int STATE_SHIFT = 62;
+    private static final int COUNT_SHIFT = 42;
+    private static final long COUNT_MASK = (1L << 20) - 1;
+    private static final long VALUE_MASK = (1L << COUNT_SHIFT) - 1;
+    private static final State[] STATES = State.values();
+
+    private final AtomicLong word = new AtomicLong();
+    private final LongSupplier nanoClock;
+    private final long baseNanos;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder halfOpened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreakerState() {
+        this(System::nanoTime);
+    }
+
+    CircuitBreakerState(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.baseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns whether a probe may run now, claiming a trial slot when the breaker is half-open.
+     */
+    public boolean tryAcquire(int halfOpenTrials) {
+        int trials = Math.max(1, halfOpenTrials);
+        while (true) {
+            long current = word.get();
+            State state = stateOf(current);
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN) {
+                if (nowMillis() < valueOf(current)) {
+                    rejected.increment();
+                    return false;
+                }
+                if (word.compareAndSet(current, pack(State.HALF_OPEN, 1, 0))) {
+                    halfOpened.increment();
+                    return true;
+                }
+                continue;
+            }
+            long admitted = countOf(current);
+            if (admitted >= trials) {
+                rejected.increment();
+                return false;
+            }
+            if (word.compareAndSet(current, pack(State.HALF_OPEN, admitted + 1, valueOf(current)))) {
+                return true;
+            }
+        }
+    }
 
     public boolean isOpen() {
-        return openUntil != null && Instant.now().isBefore(openUntil);
+        long current = word.get();
+        State state = stateOf(current);
+        return state == State.OPEN && nowMillis() < valueOf(current);
     }
 
-    public void recordFailure(int threshold, long openMillis) {
-        consecutiveFailures++;
-        if (consecutiveFailures >= threshold) {
-            openUntil = Instant.now().plusMillis(openMillis);
+    /**
+     * Returns true when this failure opened the breaker.
+     */
+    public boolean recordFailure(int threshold, long openMillis) {
+        while (true) {
+            long current = word.get();
+            State state = stateOf(current);
+            long next;
+            if (state == State.CLOSED) {
+                long failures = Math.min(COUNT_MASK, countOf(current) + 1);
+                next = failures >= threshold
+                    ? pack(State.OPEN, failures, deadline(openMillis))
+                    : pack(State.CLOSED, failures, 0);
+            } else if (state == State.HALF_OPEN) {
+                next = pack(State.OPEN, Math.max(1, threshold), deadline(openMillis));
+            } else {
+                return false;
+            }
+            if (word.compareAndSet(current, next)) {
+                if (stateOf(next) == State.OPEN) {
+                    opened.increment();
+                    return true;
+                }
+                return false;
+            }
         }
     }
 
-    public void recordSuccess() {
-        consecutiveFailures = 0;
-        openUntil = null;
+    public void recordSuccess(int halfOpenTrials) {
+        int trials = Math.max(1, halfOpenTrials);
+        while (true) {
+            long current = word.get();
+            State state = stateOf(current);
+            long next;
+            if (state == State.CLOSED) {
+                if (countOf(current) == 0) {
+                    return;
+                }
+                next = pack(State.CLOSED, 0, 0);
+            } else if (state == State.HALF_OPEN) {
+                long successes = valueOf(current) + 1;
+                next = successes >= trials
+                    ? pack(State.CLOSED, 0, 0)
+                    : pack(State.HALF_OPEN, countOf(current), successes);
+            } else {
+                // a probe admitted before the breaker opened; its late success does not close it
+                return;
+            }
+            if (word.compareAndSet(current, next)) {
+                if (state == State.HALF_OPEN && stateOf(next) == State.CLOSED) {
+                    closed.increment();
+                }
+                return;
+            }
+        }
+    }
+
+    public State getState() {
+        return stateOf(word.get());
     }
 
     public int getConsecutiveFailures() {
-        return consecutiveFailures;
+        long current = word.get();
+        return stateOf(current) == State.HALF_OPEN ? 0 : (int) countOf(current);
+    }
+
+    /**
+     * Milliseconds until an open breaker admits a trial probe, or 0 when it is not waiting.
+     */
+    public long getRemainingOpenMillis() {
+        long current = word.get();
+        return stateOf(current) == State.OPEN ? Math.max(0, valueOf(current) - nowMillis()) : 0;
+    }
+
+    public int getHalfOpenTrialsAdmitted() {
+        long current = word.get();
+        return stateOf(current) == State.HALF_OPEN ? (int) countOf(current) : 0;
+    }
+
+    public int getHalfOpenTrialsSucceeded() {
+        long current = word.get();
+        return stateOf(current) == State.HALF_OPEN ? (int) valueOf(current) : 0;
+    }
+
+    public long getTimesOpened() {
+        return opened.sum();
+    }
+
+    public long getTimesHalfOpened() {
+        return halfOpened.sum();
+    }
+
+    public long getTimesClosed() {
+        return closed.sum();
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    private long nowMillis() {
+        return (nanoClock.getAsLong() - baseNanos) / 1_000_000L;
+    }
+
+    private long deadline(long openMillis) {
+        return Math.min(VALUE_MASK, nowMillis() + Math.max(0, openMillis));
+    }
+
+    private static long pack(State state, long count, long value) {
+        return ((long) state.ordinal() << STATE_SHIFT) | (count << COUNT_SHIFT) | value;
+    }
+
+    private static State stateOf(long word) {
+        return STATES[(int) (word >>> STATE_SHIFT)];
+    }
+
+    private static long countOf(long word) {
+        return (word >>> COUNT_SHIFT) & COUNT_MASK;
     }
 
-    public Instant getOpenUntil() {
-        return openUntil;
+    private static long valueOf(long word) {
+        return word & VALUE_MASK;
     }
 }
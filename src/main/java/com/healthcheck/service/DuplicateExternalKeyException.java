@@ -0,0 +1,18 @@
+package com.healthcheck.service;
+
+/**
+ * Thrown by {@link HealthCheckService#createTarget} when another live target already holds the request's
+ * {@code externalKey}. The request itself is valid; it conflicts with the current state.
+ */
+public class DuplicateExternalKeyException extends RuntimeException {
+    private final String externalKey;
+
+    public DuplicateExternalKeyException(String externalKey) {
+        super("externalKey already in use: " + externalKey);
+        this.externalKey = externalKey;
+    }
+
+    public String getExternalKey() {
+        return externalKey;
+    }
+}
@@ -0,0 +1,11 @@
+package com.healthcheck.service;
+
+/**
+ * What a {@code force=true} check does when a probe for the same target is already running.
+ */
+public enum ForceCheckPolicy {
+    /** Share the running probe's result. */
+    JOIN,
+    /** Wait for the running probe to finish, then share the next probe started after it. */
+    NEXT
+}
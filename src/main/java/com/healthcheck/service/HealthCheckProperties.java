@@ -1,19 +1,61 @@
 package com.healthcheck.service;
 
+import com.healthcheck.model.HttpProtocol;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.List;
 
 @Component
 @ConfigurationProperties(prefix = "healthcheck")
 public class HealthCheckProperties {
     private Duration cacheTtl = Duration.ofSeconds(15);
+    private Duration cacheStaleGrace = Duration.ZERO;
+    private Duration cacheRefreshAhead = Duration.ZERO;
     private int circuitFailureThreshold = 3;
     private Duration circuitOpenDuration = Duration.ofSeconds(30);
+    private int circuitHalfOpenTrials = 1;
     private Duration retryBaseBackoff = Duration.ofMillis(200);
+    private Duration retryMaxBackoff = Duration.ofSeconds(5);
+    private double rateLimitGlobal = 0;
+    private int rateLimitGlobalBurst = 50;
+    private double rateLimitPerHost = 0;
+    private int rateLimitPerHostBurst = 5;
+    private double rateLimitPerTarget = 0;
+    private Duration rateLimitMaxWait = Duration.ofSeconds(5);
+    private Duration retryAfterDefault = Duration.ofSeconds(10);
+    private Duration retryAfterMax = Duration.ofMinutes(10);
     private Duration schedulerDelay = Duration.ofSeconds(30);
     private int maxResponseBodyChars = 2048;
+    private int historySize = 1000;
+    private boolean metricsEnabled = true;
+    private boolean metricsPerTargetTags = false;
+    private boolean persistenceEnabled = false;
+    private String persistenceDir = "data";
+    private int persistenceCompactAfter = 10000;
+    private boolean persistenceSyncWrites = false;
+    private int streamBufferSize = 256;
+    private Duration streamFlushInterval = Duration.ofMillis(250);
+    private Duration streamHeartbeat = Duration.ofSeconds(15);
+    private List<Duration> latencyWindows = List.of(Duration.ofMinutes(1), Duration.ofMinutes(15), Duration.ofHours(1));
+    private DataSize maxResponseBodySize = DataSize.ofMegabytes(1);
+    private int jsonMaxDepth = 256;
+    private long jsonMaxTokens;
+    private HttpProtocol defaultHttpProtocol = HttpProtocol.HTTP_2;
+    private boolean dnsCacheEnabled = true;
+    private Duration dnsNegativeTtl = Duration.ofSeconds(5);
+    private int dnsLookupThreads = 4;
+    private ForceCheckPolicy forceCheckPolicy = ForceCheckPolicy.JOIN;
+    private boolean perTargetScheduling = true;
+    private Duration wheelTick = Duration.ofMillis(100);
+    private int wheelSize = 512;
+    private boolean asyncTransport = true;
+    private boolean virtualThreads = true;
+    private int workerThreads = 32;
+    private int maxConcurrentChecks = 256;
+    private int maxConcurrentChecksPerHost = 8;
 
     public Duration getCacheTtl() {
         return cacheTtl;
@@ -23,6 +65,22 @@ public class HealthCheckProperties {
         this.cacheTtl = cacheTtl;
     }
 
+    public Duration getCacheStaleGrace() {
+        return cacheStaleGrace;
+    }
+
+    public void setCacheStaleGrace(Duration cacheStaleGrace) {
+        this.cacheStaleGrace = cacheStaleGrace;
+    }
+
+    public Duration getCacheRefreshAhead() {
+        return cacheRefreshAhead;
+    }
+
+    public void setCacheRefreshAhead(Duration cacheRefreshAhead) {
+        this.cacheRefreshAhead = cacheRefreshAhead;
+    }
+
     public int getCircuitFailureThreshold() {
         return circuitFailureThreshold;
     }
@@ -39,6 +97,14 @@ public class HealthCheckProperties {
         this.circuitOpenDuration = circuitOpenDuration;
     }
 
+    public int getCircuitHalfOpenTrials() {
+        return circuitHalfOpenTrials;
+    }
+
+    public void setCircuitHalfOpenTrials(int circuitHalfOpenTrials) {
+        this.circuitHalfOpenTrials = circuitHalfOpenTrials;
+    }
+
     public Duration getRetryBaseBackoff() {
         return retryBaseBackoff;
     }
@@ -47,6 +113,78 @@ public class HealthCheckProperties {
         this.retryBaseBackoff = retryBaseBackoff;
     }
 
+    public Duration getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    public void setRetryMaxBackoff(Duration retryMaxBackoff) {
+        this.retryMaxBackoff = retryMaxBackoff;
+    }
+
+    public double getRateLimitGlobal() {
+        return rateLimitGlobal;
+    }
+
+    public void setRateLimitGlobal(double rateLimitGlobal) {
+        this.rateLimitGlobal = rateLimitGlobal;
+    }
+
+    public int getRateLimitGlobalBurst() {
+        return rateLimitGlobalBurst;
+    }
+
+    public void setRateLimitGlobalBurst(int rateLimitGlobalBurst) {
+        this.rateLimitGlobalBurst = rateLimitGlobalBurst;
+    }
+
+    public double getRateLimitPerHost() {
+        return rateLimitPerHost;
+    }
+
+    public void setRateLimitPerHost(double rateLimitPerHost) {
+        this.rateLimitPerHost = rateLimitPerHost;
+    }
+
+    public int getRateLimitPerHostBurst() {
+        return rateLimitPerHostBurst;
+    }
+
+    public void setRateLimitPerHostBurst(int rateLimitPerHostBurst) {
+        this.rateLimitPerHostBurst = rateLimitPerHostBurst;
+    }
+
+    public double getRateLimitPerTarget() {
+        return rateLimitPerTarget;
+    }
+
+    public void setRateLimitPerTarget(double rateLimitPerTarget) {
+        this.rateLimitPerTarget = rateLimitPerTarget;
+    }
+
+    public Duration getRateLimitMaxWait() {
+        return rateLimitMaxWait;
+    }
+
+    public void setRateLimitMaxWait(Duration rateLimitMaxWait) {
+        this.rateLimitMaxWait = rateLimitMaxWait;
+    }
+
+    public Duration getRetryAfterDefault() {
+        return retryAfterDefault;
+    }
+
+    public void setRetryAfterDefault(Duration retryAfterDefault) {
+        this.retryAfterDefault = retryAfterDefault;
+    }
+
+    public Duration getRetryAfterMax() {
+        return retryAfterMax;
+    }
+
+    public void setRetryAfterMax(Duration retryAfterMax) {
+        this.retryAfterMax = retryAfterMax;
+    }
+
     public Duration getSchedulerDelay() {
         return schedulerDelay;
     }
@@ -62,4 +200,220 @@ public class HealthCheckProperties {
     public void setMaxResponseBodyChars(int maxResponseBodyChars) {
         this.maxResponseBodyChars = maxResponseBodyChars;
     }
+
+    public DataSize getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+
+    public void setMaxResponseBodySize(DataSize maxResponseBodySize) {
+        this.maxResponseBodySize = maxResponseBodySize;
+    }
+
+    public int getJsonMaxDepth() {
+        return jsonMaxDepth;
+    }
+
+    public void setJsonMaxDepth(int jsonMaxDepth) {
+        this.jsonMaxDepth = jsonMaxDepth;
+    }
+
+    public long getJsonMaxTokens() {
+        return jsonMaxTokens;
+    }
+
+    public void setJsonMaxTokens(long jsonMaxTokens) {
+        this.jsonMaxTokens = jsonMaxTokens;
+    }
+
+    public ForceCheckPolicy getForceCheckPolicy() {
+        return forceCheckPolicy;
+    }
+
+    public void setForceCheckPolicy(ForceCheckPolicy forceCheckPolicy) {
+        this.forceCheckPolicy = forceCheckPolicy;
+    }
+
+    public boolean isPerTargetScheduling() {
+        return perTargetScheduling;
+    }
+
+    public void setPerTargetScheduling(boolean perTargetScheduling) {
+        this.perTargetScheduling = perTargetScheduling;
+    }
+
+    public Duration getWheelTick() {
+        return wheelTick;
+    }
+
+    public void setWheelTick(Duration wheelTick) {
+        this.wheelTick = wheelTick;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public boolean isAsyncTransport() {
+        return asyncTransport;
+    }
+
+    public void setAsyncTransport(boolean asyncTransport) {
+        this.asyncTransport = asyncTransport;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getMaxConcurrentChecks() {
+        return maxConcurrentChecks;
+    }
+
+    public void setMaxConcurrentChecks(int maxConcurrentChecks) {
+        this.maxConcurrentChecks = maxConcurrentChecks;
+    }
+
+    public int getMaxConcurrentChecksPerHost() {
+        return maxConcurrentChecksPerHost;
+    }
+
+    public void setMaxConcurrentChecksPerHost(int maxConcurrentChecksPerHost) {
+        this.maxConcurrentChecksPerHost = maxConcurrentChecksPerHost;
+    }
+
+    public HttpProtocol getDefaultHttpProtocol() {
+        return defaultHttpProtocol;
+    }
+
+    public void setDefaultHttpProtocol(HttpProtocol defaultHttpProtocol) {
+        this.defaultHttpProtocol = defaultHttpProtocol;
+    }
+
+    public boolean isDnsCacheEnabled() {
+        return dnsCacheEnabled;
+    }
+
+    public void setDnsCacheEnabled(boolean dnsCacheEnabled) {
+        this.dnsCacheEnabled = dnsCacheEnabled;
+    }
+
+    public Duration getDnsNegativeTtl() {
+        return dnsNegativeTtl;
+    }
+
+    public void setDnsNegativeTtl(Duration dnsNegativeTtl) {
+        this.dnsNegativeTtl = dnsNegativeTtl;
+    }
+
+    public int getDnsLookupThreads() {
+        return dnsLookupThreads;
+    }
+
+    public void setDnsLookupThreads(int dnsLookupThreads) {
+        this.dnsLookupThreads = dnsLookupThreads;
+    }
+
+    public List<Duration> getLatencyWindows() {
+        return latencyWindows;
+    }
+
+    public void setLatencyWindows(List<Duration> latencyWindows) {
+        this.latencyWindows = latencyWindows;
+    }
+
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    public void setHistorySize(int historySize) {
+        this.historySize = historySize;
+    }
+
+    public int getStreamBufferSize() {
+        return streamBufferSize;
+    }
+
+    public void setStreamBufferSize(int streamBufferSize) {
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    public Duration getStreamFlushInterval() {
+        return streamFlushInterval;
+    }
+
+    public void setStreamFlushInterval(Duration streamFlushInterval) {
+        this.streamFlushInterval = streamFlushInterval;
+    }
+
+    public Duration getStreamHeartbeat() {
+        return streamHeartbeat;
+    }
+
+    public void setStreamHeartbeat(Duration streamHeartbeat) {
+        this.streamHeartbeat = streamHeartbeat;
+    }
+
+    public boolean isPersistenceEnabled() {
+        return persistenceEnabled;
+    }
+
+    public void setPersistenceEnabled(boolean persistenceEnabled) {
+        this.persistenceEnabled = persistenceEnabled;
+    }
+
+    public String getPersistenceDir() {
+        return persistenceDir;
+    }
+
+    public void setPersistenceDir(String persistenceDir) {
+        this.persistenceDir = persistenceDir;
+    }
+
+    public int getPersistenceCompactAfter() {
+        return persistenceCompactAfter;
+    }
+
+    public void setPersistenceCompactAfter(int persistenceCompactAfter) {
+        this.persistenceCompactAfter = persistenceCompactAfter;
+    }
+
+    public boolean isPersistenceSyncWrites() {
+        return persistenceSyncWrites;
+    }
+
+    public void setPersistenceSyncWrites(boolean persistenceSyncWrites) {
+        this.persistenceSyncWrites = persistenceSyncWrites;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public boolean isMetricsPerTargetTags() {
+        return metricsPerTargetTags;
+    }
+
+    public void setMetricsPerTargetTags(boolean metricsPerTargetTags) {
+        this.metricsPerTargetTags = metricsPerTargetTags;
+    }
 }
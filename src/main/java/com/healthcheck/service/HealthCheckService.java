@@ -2,46 +2,221 @@ package com.healthcheck.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcheck.model.*;
+import com.healthcheck.persistence.TargetLog;
 import com.healthcheck.transport.HttpResponseData;
 import com.healthcheck.transport.HttpTransport;
 import com.healthcheck.transport.JavaHttpTransport;
+import com.healthcheck.transport.JsonStreamValidator;
+import com.healthcheck.transport.JsonVerdict;
+import com.healthcheck.transport.ProbeTimings;
+import com.healthcheck.transport.TransportSettings;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.ConnectException;
+import java.net.URI;
 import java.net.UnknownHostException;
 import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.SSLHandshakeException;
 
 @Service
 public class HealthCheckService {
     private final Map<UUID, Target> targets = new ConcurrentHashMap<>();
-    private final Map<UUID, HealthCheckResult> lastResults = new ConcurrentHashMap<>();
+    private final Map<String, UUID> targetsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<UUID, HealthCheckResult> lastResults = new ConcurrentSkipListMap<>();
+    private final SummaryCounters summary = new SummaryCounters();
+    private final List<ResultListener> resultListeners = new CopyOnWriteArrayList<>();
     private final Map<UUID, CircuitBreakerState> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<UUID, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private final Map<UUID, ResultHistory> histories = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<HealthCheckResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<HealthCheckResult>> queuedProbes = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedChecks = new AtomicLong();
+    private final AtomicLong skippedChecks = new AtomicLong();
+    private final AtomicLong scheduledProbesFired = new AtomicLong();
     private final HealthCheckProperties properties;
     private final ObjectMapper objectMapper;
     private final HttpTransport transport;
+    private final CheckEngine engine;
+    private final RetryScheduler retryScheduler;
+    private final RateLimiter rateLimiter;
+    private final long cacheTtlNanos;
+    private final long cacheStaleGraceNanos;
+    private final long cacheRefreshAheadNanos;
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    private final HashedWheelTimer wheel;
+    private final Map<UUID, ScheduledProbe> schedules = new ConcurrentHashMap<>();
+    private final TargetLog targetLog;
+    private final CheckMetrics metrics;
 
-    @Autowired
     public HealthCheckService(HealthCheckProperties properties) {
-        this(properties, new ObjectMapper(), new JavaHttpTransport());
+        this(properties, new ObjectMapper(), new JavaHttpTransport(transportSettings(properties)));
+    }
+
+    @Autowired
+    public HealthCheckService(HealthCheckProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(properties, new ObjectMapper(), new JavaHttpTransport(transportSettings(properties)),
+            meterRegistry.getIfAvailable());
     }
 
     public HealthCheckService(HealthCheckProperties properties, ObjectMapper objectMapper, HttpTransport transport) {
+        this(properties, objectMapper, transport, null);
+    }
+
+    public HealthCheckService(HealthCheckProperties properties, ObjectMapper objectMapper, HttpTransport transport,
+                              MeterRegistry meterRegistry) {
         this.properties = properties;
         this.objectMapper = objectMapper;
         this.transport = transport;
+        this.engine = new CheckEngine(properties);
+        this.retryScheduler = new RetryScheduler(properties);
+        this.rateLimiter = new RateLimiter(properties);
+        this.cacheTtlNanos = properties.getCacheTtl().toNanos();
+        this.cacheStaleGraceNanos = Math.max(0, properties.getCacheStaleGrace().toNanos());
+        this.cacheRefreshAheadNanos = Math.max(0, properties.getCacheRefreshAhead().toNanos());
+        this.wheel = properties.isPerTargetScheduling()
+            ? new HashedWheelTimer(properties.getWheelTick().toMillis(), properties.getWheelSize(), "health-check-wheel")
+            : null;
+        this.metrics = meterRegistry != null && properties.isMetricsEnabled()
+            ? new CheckMetrics(meterRegistry, properties.isMetricsPerTargetTags(), targets)
+            : CheckMetrics.NOOP;
+        metrics.bindGauges(engine, targets, circuitBreakers, schedules);
+        this.targetLog = properties.isPersistenceEnabled() ? openTargetLog(properties) : null;
+        if (targetLog != null) {
+            for (Target target : targetLog.targets()) {
+                try {
+                    transport.prepare(target);
+                } catch (IllegalArgumentException ex) {
+                    // validated when it was stored; keep it so its probes report the failure
+                }
+                register(target);
+                if (target.getExternalKey() != null) {
+                    targetsByKey.put(target.getExternalKey(), target.getId());
+                }
+            }
+        }
+    }
+
+    private static TargetLog openTargetLog(HealthCheckProperties properties) {
+        try {
+            return TargetLog.open(Path.of(properties.getPersistenceDir()), properties.getPersistenceCompactAfter(),
+                properties.isPersistenceSyncWrites());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to restore targets from " + properties.getPersistenceDir(), ex);
+        }
+    }
+
+    private static TransportSettings transportSettings(HealthCheckProperties properties) {
+        TransportSettings settings = new TransportSettings();
+        settings.setMaxPreviewBytes(Math.max(0, properties.getMaxResponseBodyChars()));
+        settings.setMaxBodyBytes(properties.getMaxResponseBodySize().toBytes());
+        settings.setJsonMaxDepth(properties.getJsonMaxDepth());
+        settings.setJsonMaxTokens(properties.getJsonMaxTokens());
+        settings.setDefaultProtocol(properties.getDefaultHttpProtocol());
+        settings.setDnsCacheEnabled(properties.isDnsCacheEnabled());
+        settings.setDnsNegativeTtl(properties.getDnsNegativeTtl());
+        settings.setDnsLookupThreads(properties.getDnsLookupThreads());
+        return settings;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+        retryScheduler.shutdown();
+        engine.shutdown();
+        transport.close();
+        if (targetLog != null) {
+            try {
+                targetLog.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to compact the target log", ex);
+            }
+        }
     }
 
     public Target createTarget(CreateTargetRequest request) {
-        UUID id = UUID.randomUUID();
+        String key = request.getExternalKey();
+        if (key == null) {
+            return addTarget(UUID.randomUUID(), request);
+        }
+        Target[] created = new Target[1];
+        targetsByKey.compute(key, (k, existing) -> {
+            if (existing != null && targets.containsKey(existing)) {
+                throw new DuplicateExternalKeyException(key);
+            }
+            created[0] = addTarget(UUID.randomUUID(), request);
+            return created[0].getId();
+        });
+        return created[0];
+    }
+
+    /**
+     * Creates the target, or replaces the definition of the one already holding the request's
+     * {@code externalKey} while keeping its id, breaker and history. Returns true when a target was created.
+     */
+    public boolean upsertTarget(CreateTargetRequest request) {
+        String key = request.getExternalKey();
+        if (key == null) {
+            createTarget(request);
+            return true;
+        }
+        boolean[] created = new boolean[1];
+        targetsByKey.compute(key, (k, existing) -> {
+            if (existing != null) {
+                Target replacement = newTarget(existing, request);
+                transport.prepare(replacement);
+                Target[] previous = new Target[1];
+                targets.computeIfPresent(existing, (id, current) -> {
+                    previous[0] = current;
+                    return logged(replacement);
+                });
+                if (previous[0] != null) {
+                    if (!Objects.equals(previous[0].getCheckInterval(), replacement.getCheckInterval())) {
+                        scheduleTarget(replacement);
+                    }
+                    return existing;
+                }
+                transport.release(existing);
+            }
+            created[0] = true;
+            return addTarget(UUID.randomUUID(), request).getId();
+        });
+        return created[0];
+    }
+
+    private Target addTarget(UUID id, CreateTargetRequest request) {
+        Target target = newTarget(id, request);
+        transport.prepare(target);
+        if (targetLog != null) {
+            targetLog.put(target);
+        }
+        register(target);
+        return target;
+    }
+
+    private static Target newTarget(UUID id, CreateTargetRequest request) {
         String contentType = request.getContentType();
         if (contentType == null && request.getRequestBody() != null) {
             contentType = "application/json";
@@ -63,24 +238,49 @@ public class HealthCheckService {
             request.getSlowThreshold(),
             request.getMaxRetries()
         );
+        target.setSlowThresholdPhase(request.getSlowThresholdPhase());
+        target.setCheckInterval(request.getCheckInterval());
+        target.setProtocol(request.getProtocol());
+        target.setExternalKey(request.getExternalKey());
+        target.setRateLimit(request.getRateLimit());
+        return target;
+    }
+
+    /**
+     * Starts tracking a stored target that has already been passed to {@code transport.prepare}.
+     */
+    private void register(Target target) {
+        UUID id = target.getId();
         targets.put(id, target);
         circuitBreakers.putIfAbsent(id, new CircuitBreakerState());
-        return target;
+        latencies.putIfAbsent(id, new LatencyRecorder(properties.getLatencyWindows()));
+        if (properties.getHistorySize() > 0) {
+            histories.putIfAbsent(id, new ResultHistory(properties.getHistorySize()));
+        }
+        scheduleTarget(target);
     }
 
     public List<Target> listTargets() {
         return new ArrayList<>(targets.values());
     }
 
+    /**
+     * Live, weakly consistent view of all targets for streaming them out without copying.
+     */
+    public Collection<Target> targetsView() {
+        return Collections.unmodifiableCollection(targets.values());
+    }
+
     public Target getTarget(UUID id) {
         return targets.get(id);
     }
 
     public Target updateTarget(UUID id, UpdateTargetRequest request) {
-        Target target = targets.get(id);
-        if (target == null) {
+        Target current = targets.get(id);
+        if (current == null) {
             return null;
         }
+        Target target = copyOf(current);
         if (request.getName() != null) {
             target.setName(request.getName());
         }
@@ -120,208 +320,758 @@ public class HealthCheckService {
         if (request.getSlowThreshold() != null) {
             target.setSlowThreshold(request.getSlowThreshold());
         }
+        if (request.getSlowThresholdPhase() != null) {
+            target.setSlowThresholdPhase(request.getSlowThresholdPhase());
+        }
         if (request.getMaxRetries() != null) {
             target.setMaxRetries(request.getMaxRetries());
         }
+        if (request.getProtocol() != null) {
+            target.setProtocol(request.getProtocol());
+        }
+        if (request.getRateLimit() != null) {
+            target.setRateLimit(request.getRateLimit());
+        }
+        boolean intervalChanged = request.getCheckInterval() != null
+            && !request.getCheckInterval().equals(target.getCheckInterval());
+        if (intervalChanged) {
+            target.setCheckInterval(request.getCheckInterval());
+        }
+        transport.prepare(target);
+        if (targets.computeIfPresent(id, (key, previous) -> logged(target)) == null) {
+            transport.release(id);
+            return null;
+        }
+        if (intervalChanged) {
+            scheduleTarget(target);
+        }
         return target;
     }
 
+    private Target logged(Target target) {
+        if (targetLog != null) {
+            targetLog.put(target);
+        }
+        return target;
+    }
+
+    private static Target copyOf(Target target) {
+        Target copy = new Target(
+            target.getId(),
+            target.getName(),
+            target.getUrl(),
+            target.getMethod(),
+            target.getHeaders(),
+            target.getRequestBody(),
+            target.getContentType(),
+            target.getTimeout(),
+            target.getExpectedStatusMin(),
+            target.getExpectedStatusMax(),
+            target.isExpectJson(),
+            target.getExpectedBodyContains(),
+            target.getSlowThreshold(),
+            target.getMaxRetries()
+        );
+        copy.setSlowThresholdPhase(target.getSlowThresholdPhase());
+        copy.setCheckInterval(target.getCheckInterval());
+        copy.setProtocol(target.getProtocol());
+        copy.setExternalKey(target.getExternalKey());
+        copy.setRateLimit(target.getRateLimit());
+        return copy;
+    }
+
     public boolean deleteTarget(UUID id) {
-        return targets.remove(id) != null;
+        ScheduledProbe probe = schedules.remove(id);
+        if (probe != null) {
+            probe.cancel();
+        }
+        Target target = targets.remove(id);
+        transport.release(id);
+        boolean removed = target != null;
+        if (removed && target.getExternalKey() != null) {
+            targetsByKey.remove(target.getExternalKey(), id);
+        }
+        if (removed && targetLog != null) {
+            targetLog.delete(id);
+        }
+        circuitBreakers.remove(id);
+        rateLimiter.targetRemoved(id);
+        latencies.remove(id);
+        histories.remove(id);
+        metrics.targetRemoved(id);
+        HealthCheckResult last = lastResults.remove(id);
+        if (last != null) {
+            summary.replace(last, null);
+            notifyListeners(id, last, null);
+        }
+        return removed;
+    }
+
+    public void addResultListener(ResultListener listener) {
+        resultListeners.add(listener);
+    }
+
+    public void removeResultListener(ResultListener listener) {
+        resultListeners.remove(listener);
+    }
+
+    private void notifyListeners(UUID id, HealthCheckResult previous, HealthCheckResult current) {
+        for (ResultListener listener : resultListeners) {
+            try {
+                listener.onResult(id, previous, current);
+            } catch (RuntimeException ignored) {
+                // a failing listener must not fail the probe or starve the others
+            }
+        }
     }
 
     public HealthCheckResult checkTarget(UUID id, boolean force) {
+        return checkTargetAsync(id, force).join();
+    }
+
+    public CompletableFuture<HealthCheckResult> checkTargetAsync(UUID id, boolean force) {
         Target target = targets.get(id);
         if (target == null) {
-            return null;
+            return CompletableFuture.completedFuture(null);
         }
 
         HealthCheckResult cached = lastResults.get(id);
-        if (!force && cached != null && cached.getTimestamp() != null) {
-            Duration age = Duration.between(cached.getTimestamp(), Instant.now());
-            if (age.compareTo(properties.getCacheTtl()) < 0) {
-                HealthCheckResult copy = copyResult(cached);
-                copy.setFromCache(true);
-                copy.setCachedAt(cached.getTimestamp());
-                return copy;
+        if (!force && cached != null) {
+            long now = System.nanoTime();
+            if (cached.isFreshAt(now)) {
+                metrics.cacheHit(id);
+                if (cacheRefreshAheadNanos > 0 && !cached.isFreshAt(now + cacheRefreshAheadNanos)) {
+                    refreshInBackground(target);
+                }
+                return CompletableFuture.completedFuture(cached.servedFromCache());
+            }
+            if (cacheStaleGraceNanos > 0 && cached.isFreshAt(now - cacheStaleGraceNanos)) {
+                metrics.cacheStale(id);
+                refreshInBackground(target);
+                return CompletableFuture.completedFuture(cached.servedStale());
             }
         }
-
-        CircuitBreakerState breaker = circuitBreakers.computeIfAbsent(id, key -> new CircuitBreakerState());
-        if (breaker.isOpen()) {
-            HealthCheckResult result = baseResult(id);
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.CIRCUIT_OPEN);
-            result.setErrorMessage("Circuit breaker open");
-            result.setTimestamp(Instant.now());
-            lastResults.put(id, result);
-            return result;
+        if (!force) {
+            metrics.cacheMiss(id);
         }
 
-        HealthCheckResult result = attemptWithRetries(target);
-        lastResults.put(id, result);
+        return probe(target, force);
+    }
 
-        if (result.getStatus() == HealthStatus.UP) {
-            breaker.recordSuccess();
-        } else {
-            breaker.recordFailure(properties.getCircuitFailureThreshold(), properties.getCircuitOpenDuration().toMillis());
+    /**
+     * Re-probes a target whose cached result was just served, through the engine so the caller does not wait
+     * and concurrency limits apply. At most one refresh per target is queued or running at a time, and a probe
+     * already in flight counts as one.
+     */
+    private void refreshInBackground(Target target) {
+        UUID id = target.getId();
+        if (inFlight.containsKey(id) || !refreshing.add(id)) {
+            return;
         }
-        return result;
+        CompletableFuture<HealthCheckResult> refresh;
+        try {
+            refresh = engine.submit(hostKey(target), () -> startProbe(target));
+        } catch (RuntimeException ex) {
+            refresh = CompletableFuture.failedFuture(ex);
+        }
+        refresh.whenComplete((result, error) -> refreshing.remove(id));
     }
 
     public Map<UUID, HealthCheckResult> getLastResults() {
         return lastResults;
     }
 
+    /**
+     * Latest results ordered by target id, one page at a time. The cursor is the last id of the previous page,
+     * so targets added or removed between pages neither shift nor repeat the others.
+     */
+    public ResultsPage getResults(ResultsQuery query) {
+        int limit = query.getLimit() == null ? Integer.MAX_VALUE : Math.max(1, query.getLimit());
+        boolean compact = query.getView() == ResultView.COMPACT;
+        Map<UUID, HealthCheckResult> view = query.getCursor() == null
+            ? lastResults
+            : lastResults.tailMap(query.getCursor(), false);
+        Map<UUID, HealthCheckResult> page = new LinkedHashMap<>();
+        UUID last = null;
+        for (Map.Entry<UUID, HealthCheckResult> entry : view.entrySet()) {
+            if (!matches(query, entry.getValue())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new ResultsPage(page, last);
+            }
+            last = entry.getKey();
+            page.put(last, compact ? compactCopy(entry.getValue()) : entry.getValue());
+        }
+        return new ResultsPage(page, null);
+    }
+
+    /**
+     * Changes whenever a result is stored or removed, so equal versions mean equal result pages.
+     */
+    public long getResultsVersion() {
+        return summary.version();
+    }
+
     public HealthSummaryResponse getSummary() {
-        Map<HealthStatus, Long> counts = lastResults.values().stream()
-            .collect(Collectors.groupingBy(HealthCheckResult::getStatus, Collectors.counting()));
-        return new HealthSummaryResponse(counts, Instant.now());
+        return summary.summary();
+    }
+
+    public List<ResultHistoryEntry> getHistory(UUID id, int limit, Instant since) {
+        if (!targets.containsKey(id)) {
+            return null;
+        }
+        ResultHistory history = histories.get(id);
+        if (history == null) {
+            return List.of();
+        }
+        return history.read(limit, since == null ? Long.MIN_VALUE : since.toEpochMilli());
+    }
+
+    public LatencyResponse getLatency(UUID id) {
+        LatencyRecorder latency = latencies.get(id);
+        if (latency == null || !targets.containsKey(id)) {
+            return null;
+        }
+        LatencyResponse response = new LatencyResponse();
+        response.setTargetId(id);
+        response.setTargets(1);
+        response.setWindows(latency.snapshot());
+        return response;
+    }
+
+    public LatencyResponse getFleetLatency() {
+        List<Duration> windows = properties.getLatencyWindows();
+        List<LatencyRecorder.Accumulator> merged = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            merged.add(new LatencyRecorder.Accumulator());
+        }
+        int targetCount = 0;
+        for (LatencyRecorder latency : latencies.values()) {
+            for (int i = 0; i < Math.min(windows.size(), latency.windowCount()); i++) {
+                latency.mergeInto(i, merged.get(i));
+            }
+            targetCount++;
+        }
+        List<LatencyWindowStats> stats = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            stats.add(merged.get(i).toStats(windows.get(i)));
+        }
+        LatencyResponse response = new LatencyResponse();
+        response.setTargets(targetCount);
+        response.setWindows(stats);
+        return response;
+    }
+
+    public CircuitBreakerResponse getCircuitBreaker(UUID id) {
+        if (!targets.containsKey(id)) {
+            return null;
+        }
+        CircuitBreakerState breaker = circuitBreakers.computeIfAbsent(id, key -> new CircuitBreakerState());
+        CircuitBreakerResponse response = new CircuitBreakerResponse();
+        response.setTargetId(id);
+        response.setState(breaker.getState().name());
+        response.setConsecutiveFailures(breaker.getConsecutiveFailures());
+        response.setRemainingOpenMs(breaker.getRemainingOpenMillis());
+        response.setHalfOpenTrials(Math.max(1, properties.getCircuitHalfOpenTrials()));
+        response.setHalfOpenTrialsAdmitted(breaker.getHalfOpenTrialsAdmitted());
+        response.setHalfOpenTrialsSucceeded(breaker.getHalfOpenTrialsSucceeded());
+        response.setTimesOpened(breaker.getTimesOpened());
+        response.setTimesHalfOpened(breaker.getTimesHalfOpened());
+        response.setTimesClosed(breaker.getTimesClosed());
+        response.setRejectedCalls(breaker.getRejectedCalls());
+        return response;
+    }
+
+    public List<ConnectionPoolStats> getConnectionStats() {
+        return transport.connectionStats();
+    }
+
+    public EngineStatsResponse getEngineStats() {
+        EngineStatsResponse stats = new EngineStatsResponse();
+        stats.setWorkerMode(engine.isVirtualThreads() ? "virtual" : "platform");
+        stats.setMaxConcurrentChecks(engine.getMaxConcurrent());
+        stats.setMaxConcurrentChecksPerHost(engine.getMaxPerHost());
+        stats.setInFlight(engine.getInFlight());
+        stats.setQueued(engine.getQueued());
+        stats.setCompletedChecks(engine.getCompleted());
+        stats.setSweepsCompleted(engine.getSweepsCompleted());
+        stats.setLastSweepTargets(engine.getLastSweepTargets());
+        stats.setLastSweepFailures(engine.getLastSweepFailures());
+        stats.setLastSweepDurationMs(engine.getLastSweepDurationMs());
+        stats.setCoalescedChecks(coalescedChecks.get());
+        stats.setSkippedChecks(skippedChecks.get());
+        stats.setSchedulingMode(wheel != null ? "wheel" : "sweep");
+        stats.setScheduledTargets(schedules.size());
+        stats.setScheduledProbesFired(scheduledProbesFired.get());
+        if (engine.getLastSweepCompletedAtMillis() > 0) {
+            stats.setLastSweepCompletedAt(Instant.ofEpochMilli(engine.getLastSweepCompletedAtMillis()));
+        }
+        return stats;
     }
 
     @Scheduled(fixedDelayString = "${healthcheck.scheduler-delay:30000}")
     public void scheduledChecks() {
-        for (UUID id : targets.keySet()) {
-            checkTarget(id, false);
+        if (wheel != null) {
+            return;
         }
+        runSweep();
     }
 
-    private HealthCheckResult attemptWithRetries(Target target) {
-        int attempts = 0;
-        HealthCheckResult last = null;
-        int maxAttempts = Math.max(1, target.getMaxRetries() + 1);
+    public void runSweep() {
+        long start = System.nanoTime();
+        List<CompletableFuture<HealthCheckResult>> checks = new ArrayList<>(targets.size());
+        for (Target target : targets.values()) {
+            UUID id = target.getId();
+            checks.add(engine.submit(hostKey(target), () -> checkTargetAsync(id, false)));
+        }
 
-        for (int i = 0; i < maxAttempts; i++) {
-            attempts++;
-            last = executeOnce(target, attempts);
-            if (last.getStatus() == HealthStatus.UP) {
-                return last;
+        int failures = 0;
+        for (CompletableFuture<HealthCheckResult> check : checks) {
+            try {
+                check.join();
+            } catch (CompletionException ex) {
+                failures++;
             }
-            if (!isRetryable(last)) {
-                return last;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        engine.recordSweep(checks.size(), failures, elapsedNanos);
+        metrics.sweep(elapsedNanos);
+    }
+
+    private void scheduleTarget(Target target) {
+        if (wheel == null) {
+            return;
+        }
+        long intervalNanos = intervalNanos(target);
+        UUID id = target.getId();
+        long phase = Math.floorMod(id.getMostSignificantBits() ^ id.getLeastSignificantBits(), intervalNanos);
+        long now = System.nanoTime();
+        long firstDeadline = now + Math.floorMod(phase - now, intervalNanos);
+
+        ScheduledProbe probe = new ScheduledProbe(id, intervalNanos);
+        ScheduledProbe previous = schedules.put(id, probe);
+        if (previous != null) {
+            previous.cancel();
+        }
+        armProbe(probe, firstDeadline);
+    }
+
+    private void armProbe(ScheduledProbe probe, long deadlineNanos) {
+        probe.timeout = wheel.schedule(() -> fireProbe(probe, deadlineNanos), deadlineNanos);
+        if (probe.cancelled) {
+            probe.timeout.cancel();
+        }
+    }
+
+    private void fireProbe(ScheduledProbe probe, long deadlineNanos) {
+        Target target = targets.get(probe.targetId);
+        if (probe.cancelled || target == null) {
+            return;
+        }
+        armProbe(probe, deadlineNanos + probe.intervalNanos);
+        scheduledProbesFired.incrementAndGet();
+        metrics.scheduledProbe();
+        engine.submit(hostKey(target), () -> checkTargetAsync(probe.targetId, true));
+    }
+
+    private long intervalNanos(Target target) {
+        Duration interval = target.getCheckInterval() != null ? target.getCheckInterval() : properties.getSchedulerDelay();
+        return Math.max(wheel.getTickNanos(), interval.toNanos());
+    }
+
+    private String hostKey(Target target) {
+        try {
+            String host = URI.create(target.getUrl()).getHost();
+            if (host != null) {
+                return host.toLowerCase(Locale.ROOT);
             }
-            sleepBackoff(i);
+        } catch (IllegalArgumentException ignored) {
+            // fall through to the raw URL so malformed targets still get their own bucket
         }
-        return last;
+        return target.getUrl();
     }
 
-    private HealthCheckResult executeOnce(Target target, int attempts) {
-        HealthCheckResult result = baseResult(target.getId());
-        result.setAttempts(attempts);
-        Instant start = Instant.now();
+    private CompletableFuture<HealthCheckResult> probe(Target target, boolean force) {
+        UUID id = target.getId();
+        CompletableFuture<HealthCheckResult> running = inFlight.get(id);
+        if (running == null) {
+            return startProbe(target);
+        }
+        coalescedChecks.incrementAndGet();
+        if (!force || properties.getForceCheckPolicy() == ForceCheckPolicy.JOIN) {
+            return running;
+        }
+
+        CompletableFuture<HealthCheckResult> next = new CompletableFuture<>();
+        CompletableFuture<HealthCheckResult> queued = queuedProbes.putIfAbsent(id, next);
+        if (queued != null) {
+            return queued;
+        }
+        running.whenComplete((ignored, error) -> {
+            queuedProbes.remove(id, next);
+            propagate(startProbe(target), next);
+        });
+        return next;
+    }
 
+    private CompletableFuture<HealthCheckResult> startProbe(Target target) {
+        UUID id = target.getId();
+        CompletableFuture<HealthCheckResult> promise = new CompletableFuture<>();
+        CompletableFuture<HealthCheckResult> existing = inFlight.putIfAbsent(id, promise);
+        if (existing != null) {
+            coalescedChecks.incrementAndGet();
+            return existing;
+        }
+        CompletableFuture<HealthCheckResult> run;
         try {
-            HttpResponseData response = transport.execute(target);
-            long latencyMs = response.getDuration().toMillis();
-            result.setLatencyMs(latencyMs);
-            result.setHttpStatus(response.getStatusCode());
-            result.setResponseHeaders(response.getHeaders());
-            result.setResponseBodyPreview(limitBody(response.getBody()));
-
-            if (latencyMs > target.getSlowThreshold().toMillis()) {
-                result.setStatus(HealthStatus.DEGRADED);
-                result.setErrorCategory(ErrorCategory.SLOW_RESPONSE);
-                result.setErrorMessage("Response exceeded slow threshold");
-            } else if (response.getStatusCode() == 401 || response.getStatusCode() == 403) {
-                result.setStatus(HealthStatus.DOWN);
-                result.setErrorCategory(ErrorCategory.AUTH_FAILURE);
-                result.setErrorMessage("Authentication failed");
-            } else if (response.getStatusCode() == 429) {
-                result.setStatus(HealthStatus.DOWN);
-                result.setErrorCategory(ErrorCategory.RATE_LIMIT);
-                result.setErrorMessage("Rate limited");
-            } else if (response.getStatusCode() < target.getExpectedStatusMin()
-                || response.getStatusCode() > target.getExpectedStatusMax()) {
-                result.setStatus(HealthStatus.DOWN);
-                result.setErrorCategory(ErrorCategory.HTTP_ERROR);
-                result.setErrorMessage("Unexpected HTTP status");
-            } else if (target.getExpectedBodyContains() != null
-                && (response.getBody() == null || !response.getBody().contains(target.getExpectedBodyContains()))) {
-                result.setStatus(HealthStatus.DOWN);
-                result.setErrorCategory(ErrorCategory.HTTP_ERROR);
-                result.setErrorMessage("Response body missing expected content");
-            } else if (target.isExpectJson()) {
-                try {
-                    objectMapper.readTree(response.getBody());
-                    result.setStatus(HealthStatus.UP);
-                    result.setErrorCategory(ErrorCategory.NONE);
-                } catch (Exception jsonEx) {
-                    result.setStatus(HealthStatus.DOWN);
-                    result.setErrorCategory(ErrorCategory.INVALID_JSON);
-                    result.setErrorMessage("Invalid JSON response");
+            run = runProbe(target);
+        } catch (RuntimeException ex) {
+            run = CompletableFuture.failedFuture(ex);
+        }
+        run.whenComplete((result, error) -> inFlight.remove(id, promise));
+        propagate(run, promise);
+        return promise;
+    }
+
+    private void propagate(CompletableFuture<HealthCheckResult> source, CompletableFuture<HealthCheckResult> target) {
+        source.whenComplete((result, error) -> {
+            if (error != null) {
+                target.completeExceptionally(error);
+            } else {
+                target.complete(result);
+            }
+        });
+    }
+
+    private CompletableFuture<HealthCheckResult> runProbe(Target target) {
+        String host = hostKey(target);
+        long waitNanos = rateLimiter.reserve(host, target.getId(), target.getRateLimit(), 0);
+        if (waitNanos == RateLimiter.SKIP) {
+            return CompletableFuture.completedFuture(skipped(target, host));
+        }
+        if (waitNanos > 0) {
+            return retryScheduler.delay(ceilMillis(waitNanos), engine.executor())
+                .thenCompose(ignored -> probeThroughBreaker(target, host));
+        }
+        return probeThroughBreaker(target, host);
+    }
+
+    private CompletableFuture<HealthCheckResult> probeThroughBreaker(Target target, String host) {
+        UUID id = target.getId();
+        CircuitBreakerState breaker = circuitBreakers.computeIfAbsent(id, key -> new CircuitBreakerState());
+        int trials = properties.getCircuitHalfOpenTrials();
+        if (!breaker.tryAcquire(trials)) {
+            HealthCheckResult result = completed(baseResult(id)
+                .status(HealthStatus.DOWN)
+                .errorCategory(ErrorCategory.CIRCUIT_OPEN)
+                .errorMessage(breaker.getState() == CircuitBreakerState.State.HALF_OPEN
+                    ? "Circuit breaker half-open, trial probe in progress"
+                    : "Circuit breaker open"));
+            storeResult(id, result);
+            return CompletableFuture.completedFuture(result);
+        }
+
+        return attemptWithRetries(target, host).whenComplete((result, error) -> {
+            if (result != null) {
+                storeResult(id, result);
+            }
+            if (result != null && result.getStatus() == HealthStatus.UP) {
+                breaker.recordSuccess(trials);
+            } else {
+                if (breaker.recordFailure(properties.getCircuitFailureThreshold(),
+                        properties.getCircuitOpenDuration().toMillis())) {
+                    metrics.breakerOpened(id);
                 }
+            }
+        });
+    }
+
+    private void storeResult(UUID id, HealthCheckResult result) {
+        if (!targets.containsKey(id)) {
+            return;
+        }
+        HealthCheckResult previous = lastResults.put(id, result);
+        summary.replace(previous, result);
+        metrics.probe(id, result.getStatus(), result.getErrorCategory());
+        if (!targets.containsKey(id) && lastResults.remove(id, result)) {
+            // deleted while this result was being stored
+            summary.replace(result, null);
+            return;
+        }
+        ResultHistory history = histories.get(id);
+        if (history != null) {
+            history.record(result);
+        }
+        notifyListeners(id, previous, result);
+    }
+
+    private CompletableFuture<HealthCheckResult> attemptWithRetries(Target target, String host) {
+        int maxAttempts = Math.max(1, target.getMaxRetries() + 1);
+        return attempt(target, host, 1, maxAttempts, 0);
+    }
+
+    private CompletableFuture<HealthCheckResult> attempt(Target target, String host, int attempts, int maxAttempts,
+                                                         long previousDelayMillis) {
+        return executeOnce(target, host, attempts).thenCompose(result -> {
+            if (result.getStatus() == HealthStatus.UP || !isRetryable(result) || attempts >= maxAttempts) {
+                return CompletableFuture.completedFuture(result);
+            }
+            long delay = retryScheduler.nextDelay(previousDelayMillis);
+            long waitNanos = rateLimiter.reserve(host, target.getId(), target.getRateLimit(),
+                TimeUnit.MILLISECONDS.toNanos(delay));
+            if (waitNanos == RateLimiter.SKIP) {
+                // the host is parked, or the limits are backed up, for longer than a retry may wait
+                return CompletableFuture.completedFuture(result);
+            }
+            metrics.retry(target.getId(), result.getErrorCategory());
+            return retryScheduler.delay(ceilMillis(waitNanos), engine.executor())
+                .thenCompose(ignored -> attempt(target, host, attempts + 1, maxAttempts, delay));
+        });
+    }
+
+    private CompletableFuture<HealthCheckResult> executeOnce(Target target, String host, int attempts) {
+        long startNanos = System.nanoTime();
+        return invokeTransport(target).handle((response, error) -> {
+            HealthCheckResult.Builder result = baseResult(target.getId()).attempts(attempts);
+            if (error != null) {
+                classifyFailure(result, unwrap(error));
             } else {
-                result.setStatus(HealthStatus.UP);
-                result.setErrorCategory(ErrorCategory.NONE);
+                parkIfThrottled(host, response);
+                try {
+                    classifyResponse(target, result, response);
+                } catch (Exception ex) {
+                    classifyFailure(result, ex);
+                }
             }
-        } catch (HttpTimeoutException ex) {
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.TIMEOUT);
-            result.setErrorMessage("Request timed out");
-        } catch (UnknownHostException ex) {
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.DNS_FAILURE);
-            result.setErrorMessage("DNS resolution failed");
-        } catch (SSLHandshakeException ex) {
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.TLS_ERROR);
-            result.setErrorMessage("TLS handshake failed");
-        } catch (ConnectException ex) {
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.CONNECTION_FAILURE);
-            result.setErrorMessage("Connection failed");
-        } catch (Exception ex) {
-            result.setStatus(HealthStatus.DOWN);
-            result.setErrorCategory(ErrorCategory.UNKNOWN);
-            result.setErrorMessage(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            long elapsedNanos = response != null && response.getDuration() != null
+                ? response.getDuration().toNanos()
+                : System.nanoTime() - startNanos;
+            HealthCheckResult built = completed(result.latencyMs(elapsedNanos / 1_000_000L));
+            LatencyRecorder latency = latencies.get(target.getId());
+            if (latency != null) {
+                latency.record(elapsedNanos / 1_000L);
+            }
+            metrics.attempt(target.getId(), built.getStatus(), built.getErrorCategory(), elapsedNanos);
+            if (response != null) {
+                metrics.phases(target.getId(), response.getTimings());
+            }
+            return built;
+        });
+    }
+
+    /**
+     * Parks the host after a 429, for as long as its Retry-After asks or the configured default, and after a
+     * 503 that carries a Retry-After.
+     */
+    private void parkIfThrottled(String host, HttpResponseData response) {
+        int status = response.getStatusCode();
+        if (status != 429 && status != 503) {
+            return;
         }
+        long backoffNanos = RateLimiter.retryAfterNanos(response.getHeaders(), Instant.now());
+        if (status == 429 || backoffNanos >= 0) {
+            rateLimiter.park(host, backoffNanos);
+        }
+    }
 
-        result.setTimestamp(Instant.now());
-        result.setLatencyMs(Duration.between(start, Instant.now()).toMillis());
+    /**
+     * Result for a probe a rate limit kept from being sent. It is returned and counted but not stored, so the
+     * target keeps its last real result.
+     */
+    private HealthCheckResult skipped(Target target, String host) {
+        long parkedMillis = rateLimiter.parkedMillis(host);
+        HealthCheckResult result = baseResult(target.getId())
+            .status(HealthStatus.SKIPPED)
+            .errorCategory(ErrorCategory.THROTTLED)
+            .errorMessage(parkedMillis > 0
+                ? "Host asked for no requests for another " + parkedMillis + " ms"
+                : "Rate limit reached")
+            .timestamp(Instant.now())
+            .build();
+        skippedChecks.incrementAndGet();
+        metrics.probe(target.getId(), result.getStatus(), result.getErrorCategory());
         return result;
     }
 
+    private static Long phaseMillis(long nanos) {
+        return nanos < 0 ? null : nanos / 1_000_000L;
+    }
+
+    private static long ceilMillis(long nanos) {
+        return (nanos + 999_999L) / 1_000_000L;
+    }
+
+    private CompletableFuture<HttpResponseData> invokeTransport(Target target) {
+        if (properties.isAsyncTransport()) {
+            try {
+                return transport.executeAsync(target);
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        try {
+            return CompletableFuture.completedFuture(transport.execute(target));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void classifyResponse(Target target, HealthCheckResult.Builder result, HttpResponseData response) {
+        result.httpStatus(response.getStatusCode());
+        result.responseHeaders(response.getHeaders());
+        result.responseBodyPreview(limitBody(response.getBody()));
+        result.bytesRead(response.getBytesRead());
+        ProbeTimings timings = response.getTimings();
+        if (timings != null) {
+            result.dnsMs(phaseMillis(timings.getDnsNanos()));
+            result.ttfbMs(phaseMillis(timings.getTtfbNanos()));
+            result.downloadMs(phaseMillis(timings.getDownloadNanos()));
+        }
+
+        ProbePhase slowPhase = target.getSlowThresholdPhase() == null ? ProbePhase.TOTAL : target.getSlowThresholdPhase();
+        long slowPhaseNanos = timings != null ? timings.nanos(slowPhase)
+            : slowPhase == ProbePhase.TOTAL && response.getDuration() != null ? response.getDuration().toNanos() : -1;
+        if (slowPhaseNanos >= 0 && slowPhaseNanos / 1_000_000L > target.getSlowThreshold().toMillis()) {
+            result.status(HealthStatus.DEGRADED);
+            result.errorCategory(ErrorCategory.SLOW_RESPONSE);
+            result.errorMessage(slowPhase == ProbePhase.TOTAL
+                ? "Response exceeded slow threshold"
+                : slowPhase + " exceeded slow threshold");
+        } else if (response.getStatusCode() == 401 || response.getStatusCode() == 403) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.AUTH_FAILURE);
+            result.errorMessage("Authentication failed");
+        } else if (response.getStatusCode() == 429) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.RATE_LIMIT);
+            result.errorMessage("Rate limited");
+        } else if (response.getStatusCode() < target.getExpectedStatusMin()
+            || response.getStatusCode() > target.getExpectedStatusMax()) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.HTTP_ERROR);
+            result.errorMessage("Unexpected HTTP status");
+        } else if (target.getExpectedBodyContains() != null && !bodyContains(response, target.getExpectedBodyContains())) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.HTTP_ERROR);
+            result.errorMessage("Response body missing expected content");
+        } else if (target.isExpectJson()) {
+            JsonVerdict verdict = response.getJsonVerdict() != null
+                ? response.getJsonVerdict()
+                : JsonStreamValidator.validate(objectMapper.getFactory(), response.getBody(),
+                    properties.getJsonMaxDepth(), properties.getJsonMaxTokens());
+            if (verdict == JsonVerdict.VALID) {
+                result.status(HealthStatus.UP);
+                result.errorCategory(ErrorCategory.NONE);
+            } else {
+                result.status(HealthStatus.DOWN);
+                result.errorCategory(ErrorCategory.INVALID_JSON);
+                result.errorMessage(jsonErrorMessage(verdict));
+            }
+        } else {
+            result.status(HealthStatus.UP);
+            result.errorCategory(ErrorCategory.NONE);
+        }
+    }
+
+    private void classifyFailure(HealthCheckResult.Builder result, Throwable error) {
+        if (error instanceof HttpTimeoutException) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.TIMEOUT);
+            result.errorMessage("Request timed out");
+        } else if (error instanceof UnknownHostException) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.DNS_FAILURE);
+            result.errorMessage("DNS resolution failed");
+        } else if (error instanceof SSLHandshakeException) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.TLS_ERROR);
+            result.errorMessage("TLS handshake failed");
+        } else if (error instanceof ConnectException) {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.CONNECTION_FAILURE);
+            result.errorMessage("Connection failed");
+        } else {
+            result.status(HealthStatus.DOWN);
+            result.errorCategory(ErrorCategory.UNKNOWN);
+            result.errorMessage(error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+    }
+
+    private Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+            && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    private String jsonErrorMessage(JsonVerdict verdict) {
+        switch (verdict) {
+            case EMPTY:
+                return "Empty response, expected JSON";
+            case TOO_DEEP:
+                return "JSON response exceeds maximum nesting depth";
+            case TOO_LARGE:
+                return "JSON response exceeds size limit";
+            default:
+                return "Invalid JSON response";
+        }
+    }
+
+    private boolean bodyContains(HttpResponseData response, String expected) {
+        if (response.getBodyMatched() != null) {
+            return response.getBodyMatched();
+        }
+        return response.getBody() != null && response.getBody().contains(expected);
+    }
+
     private boolean isRetryable(HealthCheckResult result) {
         return result.getErrorCategory() == ErrorCategory.TIMEOUT
             || result.getErrorCategory() == ErrorCategory.CONNECTION_FAILURE
-            || result.getErrorCategory() == ErrorCategory.DNS_FAILURE
             || result.getErrorCategory() == ErrorCategory.TLS_ERROR
             || result.getErrorCategory() == ErrorCategory.RATE_LIMIT
             || (result.getErrorCategory() == ErrorCategory.HTTP_ERROR && result.getHttpStatus() != null
                 && (result.getHttpStatus() >= 500 || result.getHttpStatus() == 408));
     }
 
-    private void sleepBackoff(int attempt) {
-        long base = properties.getRetryBaseBackoff().toMillis();
-        long delay = base * (long) Math.pow(2, attempt);
-        try {
-            Thread.sleep(delay);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
+    private HealthCheckResult.Builder baseResult(UUID targetId) {
+        return HealthCheckResult.builder()
+            .targetId(targetId)
+            .status(HealthStatus.UNKNOWN)
+            .errorCategory(ErrorCategory.UNKNOWN);
     }
 
-    private HealthCheckResult baseResult(UUID targetId) {
-        HealthCheckResult result = new HealthCheckResult();
-        result.setTargetId(targetId);
-        result.setStatus(HealthStatus.UNKNOWN);
-        result.setErrorCategory(ErrorCategory.UNKNOWN);
-        return result;
+    /**
+     * Stamps a finished result with its completion time and the monotonic deadline until which it is served
+     * from the cache.
+     */
+    private HealthCheckResult completed(HealthCheckResult.Builder result) {
+        return result
+            .timestamp(Instant.now())
+            .expiresAtNanos(System.nanoTime() + cacheTtlNanos)
+            .build();
     }
 
-    private HealthCheckResult copyResult(HealthCheckResult source) {
-        HealthCheckResult copy = new HealthCheckResult();
-        copy.setTargetId(source.getTargetId());
-        copy.setStatus(source.getStatus());
-        copy.setHttpStatus(source.getHttpStatus());
-        copy.setLatencyMs(source.getLatencyMs());
-        copy.setResponseBodyPreview(source.getResponseBodyPreview());
-        copy.setResponseHeaders(source.getResponseHeaders());
-        copy.setErrorCategory(source.getErrorCategory());
-        copy.setErrorMessage(source.getErrorMessage());
-        copy.setTimestamp(source.getTimestamp());
-        copy.setAttempts(source.getAttempts());
-        return copy;
+    private static boolean matches(ResultsQuery query, HealthCheckResult result) {
+        Set<HealthStatus> statuses = query.getStatus();
+        if (statuses != null && !statuses.isEmpty() && !statuses.contains(result.getStatus())) {
+            return false;
+        }
+        Set<ErrorCategory> categories = query.getErrorCategory();
+        if (categories != null && !categories.isEmpty() && !categories.contains(result.getErrorCategory())) {
+            return false;
+        }
+        Instant since = query.getSince();
+        return since == null || (result.getTimestamp() != null && !result.getTimestamp().isBefore(since));
+    }
+
+    private HealthCheckResult compactCopy(HealthCheckResult source) {
+        return source.toBuilder()
+            .responseBodyPreview(null)
+            .responseHeaders(null)
+            .build();
     }
 
     private String limitBody(String body) {
@@ -334,4 +1084,24 @@ public class HealthCheckService {
         }
         return body.substring(0, limit);
     }
+
+    private static final class ScheduledProbe {
+        private final UUID targetId;
+        private final long intervalNanos;
+        private volatile HashedWheelTimer.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private ScheduledProbe(UUID targetId, long intervalNanos) {
+            this.targetId = targetId;
+            this.intervalNanos = intervalNanos;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package com.healthcheck.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size log-linear latency histogram in microseconds, in the style of HdrHistogram: every power-of-two
+ * range is split into 16 linear sub-buckets, so any recorded value is reported within ~6% of its true
+ * value. Values above {@link #MAX_VALUE} (~4.5 minutes, well past any probe timeout) are clamped. That gives
+ * 400 buckets, 1.6KB of counts. Recording is a single atomic increment and never allocates.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final long MAX_VALUE = (1L << 28) - 1;
+    static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.min(Math.max(0, micros), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        long current;
+        while ((current = max.get()) < value && !max.compareAndSet(current, value)) {
+            // retry until the larger value is published
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    /**
+     * Adds this histogram's counts into {@code into} and returns how many values were added.
+     */
+    long addTo(long[] into) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            int count = counts.get(i);
+            into[i] += count;
+            total += count;
+        }
+        return total;
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (int) (SUB_BUCKETS + shift * SUB_BUCKETS + ((value >>> shift) - SUB_BUCKETS));
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return (mantissa << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * Value at quantile {@code q} (0..1] of merged {@code counts} holding {@code total} values, or 0 if empty.
+     */
+    static long valueAtQuantile(long[] counts, long total, double q) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(counts.length - 1);
+    }
+}
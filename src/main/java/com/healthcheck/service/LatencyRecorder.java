@@ -0,0 +1,153 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.LatencyWindowStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency histograms for one target over each configured window. A window keeps the histogram for the
+ * current period and the one before it and swaps them when the period rolls over, so a snapshot covers the
+ * last full window plus the part of the current one that has elapsed. Histograms are allocated on the first
+ * record of a period and dropped once a whole window passes without one, so targets that are not being
+ * probed hold none.
+ */
+class LatencyRecorder {
+    private final Window[] windows;
+    private final LongSupplier nanoClock;
+
+    LatencyRecorder(List<Duration> windowLengths) {
+        this(windowLengths, System::nanoTime);
+    }
+
+    LatencyRecorder(List<Duration> windowLengths, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.windows = new Window[windowLengths.size()];
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window(windowLengths.get(i), now);
+        }
+    }
+
+    void record(long micros) {
+        long now = nanoClock.getAsLong();
+        for (Window window : windows) {
+            window.rotate(now);
+            window.current().record(micros);
+        }
+    }
+
+    int windowCount() {
+        return windows.length;
+    }
+
+    Duration windowLength(int index) {
+        return windows[index].length;
+    }
+
+    void mergeInto(int index, Accumulator into) {
+        Window window = windows[index];
+        window.rotate(nanoClock.getAsLong());
+        LatencyHistogram[] pair = window.pair();
+        into.add(pair[0]);
+        into.add(pair[1]);
+    }
+
+    List<LatencyWindowStats> snapshot() {
+        List<LatencyWindowStats> stats = new ArrayList<>(windows.length);
+        for (int i = 0; i < windows.length; i++) {
+            Accumulator accumulator = new Accumulator();
+            mergeInto(i, accumulator);
+            stats.add(accumulator.toStats(windows[i].length));
+        }
+        return stats;
+    }
+
+    static final class Accumulator {
+        private final long[] counts = new long[LatencyHistogram.BUCKETS];
+        private long count;
+        private long max;
+
+        void add(LatencyHistogram histogram) {
+            if (histogram == null) {
+                return;
+            }
+            count += histogram.addTo(counts);
+            max = Math.max(max, histogram.getMax());
+        }
+
+        LatencyWindowStats toStats(Duration window) {
+            LatencyWindowStats stats = new LatencyWindowStats();
+            stats.setWindow(window);
+            stats.setCount(count);
+            stats.setP50Ms(quantileMillis(0.50));
+            stats.setP90Ms(quantileMillis(0.90));
+            stats.setP99Ms(quantileMillis(0.99));
+            stats.setP999Ms(quantileMillis(0.999));
+            stats.setMaxMs(max / 1000.0);
+            return stats;
+        }
+
+        private double quantileMillis(double quantile) {
+            return Math.min(max, LatencyHistogram.valueAtQuantile(counts, count, quantile)) / 1000.0;
+        }
+    }
+
+    private static final class Window {
+        private final Duration length;
+        private final long lengthNanos;
+        private volatile long period;
+        private volatile LatencyHistogram current;
+        private volatile LatencyHistogram previous;
+
+        private Window(Duration length, long now) {
+            this.length = length;
+            this.lengthNanos = Math.max(1, length.toNanos());
+            this.period = Math.floorDiv(now, lengthNanos);
+        }
+
+        private LatencyHistogram current() {
+            LatencyHistogram histogram = current;
+            if (histogram != null) {
+                return histogram;
+            }
+            synchronized (this) {
+                if (current == null) {
+                    current = new LatencyHistogram();
+                }
+                return current;
+            }
+        }
+
+        private void rotate(long now) {
+            long target = Math.floorDiv(now, lengthNanos);
+            if (target == period) {
+                return;
+            }
+            synchronized (this) {
+                long from = period;
+                if (target <= from) {
+                    return;
+                }
+                if (target == from + 1) {
+                    LatencyHistogram recycled = previous;
+                    if (recycled != null) {
+                        recycled.clear();
+                    }
+                    previous = current;
+                    current = recycled;
+                } else {
+                    previous = null;
+                    current = null;
+                }
+                period = target;
+            }
+        }
+
+        private synchronized LatencyHistogram[] pair() {
+            return new LatencyHistogram[]{previous, current};
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.healthcheck.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Outbound request limits: a token bucket per target, per destination host and for the whole service, plus
+ * a per-host parking deadline set from {@code Retry-After}. {@link #reserve} never blocks; it says how long
+ * the caller must wait before sending, or {@link #SKIP} when that wait would exceed
+ * {@code healthcheck.rate-limit-max-wait}. A rate of 0 turns the corresponding bucket off.
+ */
+class RateLimiter {
+    static final long SKIP = -1;
+
+    private final LongSupplier nanoClock;
+    private final TokenBucket global;
+    private final double hostRate;
+    private final int hostBurst;
+    private final double targetRate;
+    private final long maxWaitNanos;
+    private final long defaultParkNanos;
+    private final long maxParkNanos;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final Map<UUID, TokenBucket> targets = new ConcurrentHashMap<>();
+
+    RateLimiter(HealthCheckProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(HealthCheckProperties properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.global = properties.getRateLimitGlobal() > 0
+            ? new TokenBucket(properties.getRateLimitGlobal(), properties.getRateLimitGlobalBurst(), nanoClock.getAsLong())
+            : null;
+        this.hostRate = properties.getRateLimitPerHost();
+        this.hostBurst = properties.getRateLimitPerHostBurst();
+        this.targetRate = properties.getRateLimitPerTarget();
+        this.maxWaitNanos = Math.max(0, properties.getRateLimitMaxWait().toNanos());
+        this.defaultParkNanos = Math.max(0, properties.getRetryAfterDefault().toNanos());
+        this.maxParkNanos = Math.max(0, properties.getRetryAfterMax().toNanos());
+    }
+
+    /**
+     * Reserves one request to {@code host} for {@code targetId}, to be sent no sooner than
+     * {@code notBeforeNanos} from now. Returns the nanoseconds to wait before sending, or {@link #SKIP} when
+     * the limits would add more than the maximum wait on top of {@code notBeforeNanos}.
+     */
+    long reserve(String host, UUID targetId, Double targetOverride, long notBeforeNanos) {
+        long now = nanoClock.getAsLong();
+        long earliest = now + Math.max(0, notBeforeNanos);
+        Host state = host(host, now);
+        long parkedUntil = state.parkedUntil.get();
+        long at = parkedUntil - earliest > 0 ? parkedUntil : earliest;
+        if (at - earliest > maxWaitNanos) {
+            return SKIP;
+        }
+        TokenBucket targetBucket = targetBucket(targetId, targetOverride, now);
+        TokenBucket[] buckets = {targetBucket, state.bucket, global};
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == null) {
+                continue;
+            }
+            long wait = buckets[i].reserve(at, maxWaitNanos - (at - earliest));
+            if (wait < 0) {
+                for (int j = 0; j < i; j++) {
+                    if (buckets[j] != null) {
+                        buckets[j].release();
+                    }
+                }
+                return SKIP;
+            }
+            at += wait;
+        }
+        return at - now;
+    }
+
+    /**
+     * Stops requests to {@code host} for the given back-off, or for {@code healthcheck.retry-after-default}
+     * when it is negative. Never shortens an existing deadline.
+     */
+    void park(String host, long backoffNanos) {
+        long now = nanoClock.getAsLong();
+        long backoff = Math.min(maxParkNanos, backoffNanos < 0 ? defaultParkNanos : backoffNanos);
+        long deadline = now + backoff;
+        host(host, now).parkedUntil.accumulateAndGet(deadline, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    /**
+     * Milliseconds until {@code host} may be contacted again, or 0 when it is not parked.
+     */
+    long parkedMillis(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(state.parkedUntil.get() - nanoClock.getAsLong()));
+    }
+
+    void targetRemoved(UUID targetId) {
+        targets.remove(targetId);
+    }
+
+    private Host host(String host, long now) {
+        return hosts.computeIfAbsent(host, key -> new Host(
+            hostRate > 0 ? new TokenBucket(hostRate, hostBurst, now) : null, now));
+    }
+
+    private TokenBucket targetBucket(UUID targetId, Double override, long now) {
+        double rate = override != null ? override : targetRate;
+        if (rate <= 0) {
+            targets.remove(targetId);
+            return null;
+        }
+        TokenBucket bucket = targets.get(targetId);
+        if (bucket != null && bucket.permitsPerSecond() == rate) {
+            return bucket;
+        }
+        return targets.compute(targetId, (id, current) ->
+            current != null && current.permitsPerSecond() == rate ? current : new TokenBucket(rate, 1, now));
+    }
+
+    /**
+     * Back-off requested by a {@code Retry-After} header, either delta-seconds or an HTTP-date, in
+     * nanoseconds; -1 when the header is absent or cannot be parsed.
+     */
+    static long retryAfterNanos(Map<String, List<String>> headers, Instant now) {
+        if (headers == null) {
+            return -1;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!"Retry-After".equalsIgnoreCase(header.getKey()) || header.getValue() == null
+                || header.getValue().isEmpty()) {
+                continue;
+            }
+            String value = header.getValue().get(0).trim();
+            try {
+                return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+            } catch (NumberFormatException ignored) {
+                // not delta-seconds, try an HTTP-date
+            }
+            try {
+                Instant until = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, Duration.between(now, until).toNanos());
+            } catch (DateTimeParseException | ArithmeticException ex) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Host {
+        private final TokenBucket bucket;
+        private final AtomicLong parkedUntil;
+
+        private Host(TokenBucket bucket, long now) {
+            this.bucket = bucket;
+            this.parkedUntil = new AtomicLong(now);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.ResultHistoryEntry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of past results for one target, stored as primitive columns (9 bytes per sample):
+ * <pre>
+ *   int  time     milliseconds since {@code baseMillis}
+ *   int  packed   [latency ms:16][http status - 99:9][status + 1:3][error category + 1:4]
+ *   byte attempts
+ * </pre>
+ * Latency is clamped to 65,535 ms and attempts to 127. When the time offset would overflow, the base moves
+ * forward and samples too old to be expressed relative to it are dropped.
+ */
+class ResultHistory {
+    private static final int LATENCY_SHIFT = 16;
+    private static final int HTTP_SHIFT = 7;
+    private static final int STATUS_SHIFT = 4;
+    private static final int HTTP_MASK = 0x1FF;
+    private static final int STATUS_MASK = 0x7;
+    private static final int ERROR_MASK = 0xF;
+    private static final HealthStatus[] STATUSES = HealthStatus.values();
+    private static final ErrorCategory[] CATEGORIES = ErrorCategory.values();
+
+    private final int[] times;
+    private final int[] packed;
+    private final byte[] attempts;
+    private long baseMillis;
+    private int head;
+    private int size;
+
+    ResultHistory(int capacity) {
+        this.times = new int[capacity];
+        this.packed = new int[capacity];
+        this.attempts = new byte[capacity];
+    }
+
+    synchronized void record(HealthCheckResult result) {
+        long epochMillis = result.getTimestamp() != null ? result.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        if (size == 0) {
+            baseMillis = epochMillis;
+        } else if (epochMillis - baseMillis > Integer.MAX_VALUE) {
+            rebase(epochMillis);
+        }
+        times[head] = (int) Math.max(Integer.MIN_VALUE, epochMillis - baseMillis);
+        packed[head] = pack(result);
+        attempts[head] = (byte) Math.min(Byte.MAX_VALUE, Math.max(0, result.getAttempts()));
+        head = (head + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    /**
+     * Newest-first samples no older than {@code sinceMillis}, at most {@code limit} of them.
+     */
+    synchronized List<ResultHistoryEntry> read(int limit, long sinceMillis) {
+        int count = Math.min(Math.max(0, limit), size);
+        List<ResultHistoryEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < size && entries.size() < count; i++) {
+            int index = Math.floorMod(head - 1 - i, times.length);
+            long epochMillis = baseMillis + times[index];
+            if (epochMillis < sinceMillis) {
+                break;
+            }
+            entries.add(unpack(epochMillis, packed[index], attempts[index]));
+        }
+        return entries;
+    }
+
+    int capacity() {
+        return times.length;
+    }
+
+    private void rebase(long epochMillis) {
+        long shift = epochMillis - baseMillis;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int index = Math.floorMod(head - 1 - i, times.length);
+            long moved = times[index] - shift;
+            if (moved < Integer.MIN_VALUE) {
+                break;
+            }
+            times[index] = (int) moved;
+            kept++;
+        }
+        size = kept;
+        baseMillis = epochMillis;
+    }
+
+    private static int pack(HealthCheckResult result) {
+        int latency = (int) Math.min(0xFFFF, Math.max(0, result.getLatencyMs()));
+        Integer httpStatus = result.getHttpStatus();
+        int http = httpStatus == null || httpStatus < 100 || httpStatus > 99 + HTTP_MASK ? 0 : httpStatus - 99;
+        int status = result.getStatus() == null ? 0 : result.getStatus().ordinal() + 1;
+        int error = result.getErrorCategory() == null ? 0 : result.getErrorCategory().ordinal() + 1;
+        return latency << LATENCY_SHIFT | http << HTTP_SHIFT | status << STATUS_SHIFT | error;
+    }
+
+    private static ResultHistoryEntry unpack(long epochMillis, int word, byte attempts) {
+        ResultHistoryEntry entry = new ResultHistoryEntry();
+        entry.setTimestamp(Instant.ofEpochMilli(epochMillis));
+        entry.setLatencyMs(word >>> LATENCY_SHIFT);
+        int http = (word >>> HTTP_SHIFT) & HTTP_MASK;
+        entry.setHttpStatus(http == 0 ? null : http + 99);
+        int status = (word >>> STATUS_SHIFT) & STATUS_MASK;
+        entry.setStatus(status == 0 ? null : STATUSES[status - 1]);
+        int error = word & ERROR_MASK;
+        entry.setErrorCategory(error == 0 ? null : CATEGORIES[error - 1]);
+        entry.setAttempts(attempts);
+        return entry;
+    }
+}
@@ -0,0 +1,14 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.HealthCheckResult;
+
+import java.util.UUID;
+
+/**
+ * Notified on the probe's completion thread whenever a target's latest result is replaced. {@code previous}
+ * is null for a target's first result and {@code current} is null when the target is deleted. Implementations
+ * must not block.
+ */
+public interface ResultListener {
+    void onResult(UUID targetId, HealthCheckResult previous, HealthCheckResult current);
+}
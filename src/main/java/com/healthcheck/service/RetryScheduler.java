@@ -0,0 +1,51 @@
+package com.healthcheck.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared timer for retry backoff. Waiting happens on a single timer thread; the continuation is handed
+ * back to the caller's executor, so no worker is parked while a retry is pending.
+ */
+public class RetryScheduler {
+    private final ScheduledExecutorService timer;
+    private final long baseMillis;
+    private final long maxMillis;
+
+    public RetryScheduler(HealthCheckProperties properties) {
+        this.baseMillis = Math.max(0, properties.getRetryBaseBackoff().toMillis());
+        this.maxMillis = Math.max(baseMillis, properties.getRetryMaxBackoff().toMillis());
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-check-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Decorrelated jitter: a random delay between the base and three times the previous delay,
+     * capped at the configured maximum. Pass {@code 0} for the first retry.
+     */
+    public long nextDelay(long previousDelayMillis) {
+        long previous = Math.max(baseMillis, previousDelayMillis);
+        long upper = Math.min(maxMillis, previous * 3);
+        if (upper <= baseMillis) {
+            return upper;
+        }
+        return ThreadLocalRandom.current().nextLong(baseMillis, upper + 1);
+    }
+
+    public CompletableFuture<Void> delay(long delayMillis, Executor continuation) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        timer.schedule(() -> continuation.execute(() -> future.complete(null)), delayMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.HealthSummaryResponse;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the latest result per target by status and error category, moved on every transition
+ * instead of being recomputed from all results. The summary object is rebuilt only after a change, so
+ * repeated polls between checks return the same immutable instance.
+ */
+class SummaryCounters {
+    private static final HealthStatus[] STATUSES = HealthStatus.values();
+    private static final ErrorCategory[] CATEGORIES = ErrorCategory.values();
+
+    private final LongAdder[] byStatus = adders(STATUSES.length);
+    private final LongAdder[] byCategory = adders(CATEGORIES.length);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastChangedMillis = System.currentTimeMillis();
+    private volatile Snapshot snapshot = new Snapshot(-1, null);
+
+    /**
+     * Moves one target from {@code previous} to {@code current}; either may be null.
+     */
+    void replace(HealthCheckResult previous, HealthCheckResult current) {
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        if (current != null) {
+            adjust(current, 1);
+        }
+        lastChangedMillis = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    HealthSummaryResponse summary() {
+        Snapshot cached = snapshot;
+        long current = version.get();
+        if (cached.version == current) {
+            return cached.response;
+        }
+        Map<HealthStatus, Long> statusCounts = new EnumMap<>(HealthStatus.class);
+        for (HealthStatus status : STATUSES) {
+            long count = byStatus[status.ordinal()].sum();
+            if (count > 0) {
+                statusCounts.put(status, count);
+            }
+        }
+        Map<ErrorCategory, Long> categoryCounts = new EnumMap<>(ErrorCategory.class);
+        for (ErrorCategory category : CATEGORIES) {
+            long count = byCategory[category.ordinal()].sum();
+            if (count > 0 && category != ErrorCategory.NONE) {
+                categoryCounts.put(category, count);
+            }
+        }
+        HealthSummaryResponse response = new HealthSummaryResponse(Collections.unmodifiableMap(statusCounts),
+            Collections.unmodifiableMap(categoryCounts), Instant.ofEpochMilli(lastChangedMillis));
+        snapshot = new Snapshot(current, response);
+        return response;
+    }
+
+    private void adjust(HealthCheckResult result, int delta) {
+        if (result.getStatus() != null) {
+            byStatus[result.getStatus().ordinal()].add(delta);
+        }
+        if (result.getErrorCategory() != null) {
+            byCategory[result.getErrorCategory().ordinal()].add(delta);
+        }
+    }
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final HealthSummaryResponse response;
+
+        private Snapshot(long version, HealthSummaryResponse response) {
+            this.version = version;
+            this.response = response;
+        }
+    }
+}
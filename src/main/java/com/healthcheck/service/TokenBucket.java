@@ -0,0 +1,52 @@
+package com.healthcheck.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held as a single theoretical arrival time (the generic cell rate algorithm), updated by CAS.
+ * Every permit pushes the arrival time one emission interval further out; a call is admitted once the
+ * arrival time is no more than {@code burst - 1} intervals ahead of it. Reservations are made for a point in
+ * time, so a caller learns how long to wait instead of blocking for a permit.
+ */
+class TokenBucket {
+    private final AtomicLong arrivalNanos;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final double permitsPerSecond;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1L);
+        this.arrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Reserves a permit for a call at {@code atNanos} and returns how long after that the call may run, or
+     * -1 without reserving anything when the wait would exceed {@code maxWaitNanos}.
+     */
+    long reserve(long atNanos, long maxWaitNanos) {
+        while (true) {
+            long arrival = arrivalNanos.get();
+            long start = arrival - atNanos > 0 ? arrival : atNanos;
+            long wait = Math.max(0, start - toleranceNanos - atNanos);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (arrivalNanos.compareAndSet(arrival, start + intervalNanos)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit taken by {@link #reserve} that ended up unused.
+     */
+    void release() {
+        arrivalNanos.addAndGet(-intervalNanos);
+    }
+
+    double permitsPerSecond() {
+        return permitsPerSecond;
+    }
+}
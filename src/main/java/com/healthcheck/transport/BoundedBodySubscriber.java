@@ -0,0 +1,204 @@
+package com.healthcheck.transport;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Reads a response body chunk by chunk, keeping only the first {@code retainBytes} bytes, matching
+ * the expected substring incrementally (KMP over bytes, so matches may span chunks) and feeding the
+ * optional JSON validator. The download is cancelled as soon as nothing more can change the verdict or
+ * {@code maxBytes} have been read.
+ */
+class BoundedBodySubscriber implements HttpResponse.BodySubscriber<BoundedBodySubscriber.Capture> {
+    private final CompletableFuture<Capture> result = new CompletableFuture<>();
+    private final Charset charset;
+    private final byte[] needle;
+    private final int[] failure;
+    private final int retainBytes;
+    private final JsonStreamValidator json;
+    private final long maxBytes;
+    private final long headersNanos = System.nanoTime();
+
+    private Flow.Subscription subscription;
+    private byte[] retained = new byte[0];
+    private int retainedLength;
+    private long bytesRead;
+    private int matchedPrefix;
+    private boolean matched;
+
+    BoundedBodySubscriber(Charset charset, String expectedContains, int retainBytes, JsonStreamValidator json,
+                          long maxBytes) {
+        this.charset = charset;
+        this.needle = expectedContains == null || expectedContains.isEmpty() ? null : expectedContains.getBytes(charset);
+        this.failure = needle == null ? null : failureTable(needle);
+        this.matched = needle == null && expectedContains != null;
+        this.retainBytes = Math.max(0, retainBytes);
+        this.json = json;
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    @Override
+    public CompletionStage<Capture> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone()) {
+            return;
+        }
+        for (ByteBuffer buffer : items) {
+            int length = buffer.remaining();
+            bytesRead += length;
+            retain(buffer);
+            if (needle != null && !matched) {
+                scan(buffer);
+            }
+            if (json != null) {
+                json.feed(buffer);
+            }
+        }
+        if (verdictKnown()) {
+            subscription.cancel();
+            finish(true, null);
+        } else if (bytesRead >= maxBytes) {
+            subscription.cancel();
+            finish(true, json == null || json.isDecided() ? null : JsonVerdict.TOO_LARGE);
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        finish(false, null);
+    }
+
+    private boolean verdictKnown() {
+        boolean jsonDecided = json == null || json.isDecided();
+        return jsonDecided && retainedLength >= retainBytes && (needle == null || matched);
+    }
+
+    private void retain(ByteBuffer buffer) {
+        int room = retainBytes - retainedLength;
+        if (room <= 0) {
+            return;
+        }
+        int take = Math.min(room, buffer.remaining());
+        if (retainedLength + take > retained.length) {
+            retained = Arrays.copyOf(retained, Math.min(retainBytes, Math.max(retainedLength + take, retained.length * 2)));
+        }
+        buffer.slice().get(retained, retainedLength, take);
+        retainedLength += take;
+    }
+
+    private void scan(ByteBuffer buffer) {
+        int state = matchedPrefix;
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            byte value = buffer.get(i);
+            while (state > 0 && needle[state] != value) {
+                state = failure[state - 1];
+            }
+            if (needle[state] == value) {
+                state++;
+            }
+            if (state == needle.length) {
+                matched = true;
+                break;
+            }
+        }
+        matchedPrefix = state;
+    }
+
+    private void finish(boolean truncated, JsonVerdict jsonOverride) {
+        String body = new String(retained, 0, retainedLength, charset);
+        Boolean bodyMatched = needle == null && !matched ? null : matched;
+        JsonVerdict jsonVerdict = jsonOverride != null ? jsonOverride : json == null ? null : json.finish();
+        result.complete(new Capture(body, bytesRead, truncated, bodyMatched, jsonVerdict, headersNanos,
+            System.nanoTime()));
+    }
+
+    private static int[] failureTable(byte[] pattern) {
+        int[] table = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[k] != pattern[i]) {
+                k = table[k - 1];
+            }
+            if (pattern[k] == pattern[i]) {
+                k++;
+            }
+            table[i] = k;
+        }
+        return table;
+    }
+
+    static final class Capture {
+        private final String body;
+        private final long bytesRead;
+        private final boolean truncated;
+        private final Boolean matched;
+        private final JsonVerdict jsonVerdict;
+        private final long headersNanos;
+        private final long endNanos;
+
+        private Capture(String body, long bytesRead, boolean truncated, Boolean matched, JsonVerdict jsonVerdict,
+                        long headersNanos, long endNanos) {
+            this.body = body;
+            this.bytesRead = bytesRead;
+            this.truncated = truncated;
+            this.matched = matched;
+            this.jsonVerdict = jsonVerdict;
+            this.headersNanos = headersNanos;
+            this.endNanos = endNanos;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        long getBytesRead() {
+            return bytesRead;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        Boolean getMatched() {
+            return matched;
+        }
+
+        JsonVerdict getJsonVerdict() {
+            return jsonVerdict;
+        }
+
+        /**
+         * When the response headers arrived, which is when the client asked for this subscriber.
+         */
+        long getHeadersNanos() {
+            return headersNanos;
+        }
+
+        long getEndNanos() {
+            return endNanos;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.healthcheck.transport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Probe-side DNS front for a blocking {@link HostResolver}. Failures are cached for the negative TTL so probes
+ * to a host that does not resolve fail without a lookup. Answers are not cached here: the JDK 17 client
+ * resolves the host again when it connects, so a positive cache in front of it would not change the addresses
+ * it uses. Successful lookups are left to the JVM address cache ({@code networkaddress.cache.ttl}), and a
+ * lookup that misses it is paid here rather than inside the request. Concurrent lookups for a host share one,
+ * and lookups run on the given executor so callers never block on DNS.
+ */
+public class CachingHostResolver {
+    private static final int PURGE_THRESHOLD = 4096;
+
+    private final HostResolver delegate;
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+    private final long negativeTtlNanos;
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<InetAddress[]>> lookups = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingHostResolver(HostResolver delegate, Executor executor, Duration negativeTtl) {
+        this(delegate, executor, negativeTtl, System::nanoTime);
+    }
+
+    CachingHostResolver(HostResolver delegate, Executor executor, Duration negativeTtl, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+        this.negativeTtlNanos = Math.max(0, negativeTtl.toNanos());
+    }
+
+    /**
+     * Addresses for {@code host}, completing exceptionally with {@link UnknownHostException} when it does
+     * not resolve. A cached failure completes immediately.
+     */
+    public CompletableFuture<InetAddress[]> resolve(String host) {
+        Failure failure = failures.get(host);
+        if (failure != null && failure.expiresAt - nanoClock.getAsLong() > 0) {
+            hits.increment();
+            return CompletableFuture.failedFuture(failure.cause);
+        }
+        return lookup(host);
+    }
+
+    /**
+     * Probes answered from the negative cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Lookups started; callers that joined one already running are not counted.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private CompletableFuture<InetAddress[]> lookup(String host) {
+        CompletableFuture<InetAddress[]> created = new CompletableFuture<>();
+        CompletableFuture<InetAddress[]> running = lookups.putIfAbsent(host, created);
+        if (running != null) {
+            return running;
+        }
+        misses.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    InetAddress[] addresses = delegate.resolve(host);
+                    failures.remove(host);
+                    lookups.remove(host, created);
+                    created.complete(addresses);
+                } catch (UnknownHostException ex) {
+                    fail(host, created, ex);
+                } catch (RuntimeException ex) {
+                    UnknownHostException failure = new UnknownHostException(host + ": " + ex.getMessage());
+                    failure.initCause(ex);
+                    fail(host, created, failure);
+                }
+            });
+        } catch (RuntimeException ex) {
+            lookups.remove(host, created);
+            created.completeExceptionally(ex);
+        }
+        return created;
+    }
+
+    private void fail(String host, CompletableFuture<InetAddress[]> lookup, UnknownHostException cause) {
+        if (failures.put(host, new Failure(cause, nanoClock.getAsLong() + negativeTtlNanos)) == null
+            && failures.size() > PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+        lookups.remove(host, lookup);
+        lookup.completeExceptionally(cause);
+    }
+
+    private void purgeExpired() {
+        long now = nanoClock.getAsLong();
+        failures.values().removeIf(failure -> failure.expiresAt - now <= 0);
+    }
+
+    private static final class Failure {
+        private final UnknownHostException cause;
+        private final long expiresAt;
+
+        private Failure(UnknownHostException cause, long expiresAt) {
+            this.cause = cause;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
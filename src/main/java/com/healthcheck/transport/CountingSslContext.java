@@ -0,0 +1,110 @@
+package com.healthcheck.transport;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delegating {@link SSLContext} that counts client engines per peer. {@link java.net.http.HttpClient} creates
+ * one engine per new TLS connection, so a peer's count is the number of TLS handshakes started with it.
+ * Only peers that have been asked for through {@link #handshakes} are counted.
+ */
+class CountingSslContext extends SSLContext {
+    private final CountingSpi spi;
+
+    CountingSslContext(SSLContext delegate) {
+        this(new CountingSpi(delegate), delegate);
+    }
+
+    private CountingSslContext(CountingSpi spi, SSLContext delegate) {
+        super(spi, delegate.getProvider(), delegate.getProtocol());
+        this.spi = spi;
+    }
+
+    /**
+     * Handshake counter for {@code host:port}, created on first use.
+     */
+    LongAdder handshakes(String host, int port) {
+        return spi.engines.computeIfAbsent(peer(host, port), key -> new LongAdder());
+    }
+
+    void forget(String host, int port) {
+        spi.engines.remove(peer(host, port));
+    }
+
+    private static String peer(String host, int port) {
+        return host.toLowerCase(Locale.ROOT) + ':' + port;
+    }
+
+    private static final class CountingSpi extends SSLContextSpi {
+        private final SSLContext delegate;
+        private final Map<String, LongAdder> engines = new ConcurrentHashMap<>();
+
+        private CountingSpi(SSLContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+            delegate.init(km, tm, sr);
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            if (host != null) {
+                LongAdder counter = engines.get(peer(host, port));
+                if (counter != null) {
+                    counter.increment();
+                }
+            }
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
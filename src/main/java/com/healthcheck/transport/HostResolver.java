@@ -0,0 +1,14 @@
+package com.healthcheck.transport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Blocking host name lookup. {@link #SYSTEM} is the JDK resolver; tests substitute a local stand-in.
+ */
+@FunctionalInterface
+public interface HostResolver {
+    HostResolver SYSTEM = InetAddress::getAllByName;
+
+    InetAddress[] resolve(String host) throws UnknownHostException;
+}
@@ -0,0 +1,160 @@
+package com.healthcheck.transport;
+
+import com.healthcheck.model.ConnectionPoolStats;
+import com.healthcheck.model.HttpProtocol;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One shared {@link HttpClient} per HTTP version, so the number of clients (each with its own selector
+ * thread) does not grow with the number of hosts. The JDK client already keeps a separate connection pool
+ * per host, and for HTTP/2 a single multiplexed connection per host. All clients run their async work on one
+ * shared executor and use one TLS context.
+ * <p>
+ * Request and handshake counts are kept per scheme/host/port/version endpoint. An endpoint is held by the
+ * request templates that send through it and is dropped when the last one is released.
+ * <p>
+ * Protocol mapping: {@code HTTP_2} negotiates h2 through ALPN on https and stays on HTTP/1.1 for plain
+ * http; {@code H2C} additionally attempts the HTTP/1.1 Upgrade to h2c on plain http. Servers that do not
+ * speak HTTP/2 are answered over HTTP/1.1 in both cases.
+ */
+class HttpClientPool {
+    private final Map<HttpClient.Version, HttpClient> clients = new ConcurrentHashMap<>();
+    private final Map<ClientKey, PooledClient> endpoints = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final CountingSslContext sslContext;
+
+    HttpClientPool() {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "health-check-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            this.sslContext = new CountingSslContext(SSLContext.getDefault());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("No default TLS context available", ex);
+        }
+    }
+
+    /**
+     * The endpoint for {@code uri} over {@code protocol}, held until it is passed to {@link #release}. Only
+     * template compilation and release take the lock; probes go straight to the endpoint.
+     */
+    synchronized PooledClient clientFor(URI uri, HttpProtocol protocol) {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(scheme) ? 443 : 80;
+        HttpClient.Version version = protocol == HttpProtocol.H2C
+            || (protocol == HttpProtocol.HTTP_2 && "https".equals(scheme))
+            ? HttpClient.Version.HTTP_2
+            : HttpClient.Version.HTTP_1_1;
+        ClientKey key = new ClientKey(scheme, host, port, version);
+        PooledClient endpoint = endpoints.computeIfAbsent(key, this::newEndpoint);
+        endpoint.holders++;
+        return endpoint;
+    }
+
+    synchronized void release(PooledClient endpoint) {
+        ClientKey key = endpoint.key;
+        if (endpoints.get(key) != endpoint || --endpoint.holders > 0) {
+            return;
+        }
+        endpoints.remove(key);
+        if ("https".equals(key.scheme) && endpoints.keySet().stream()
+                .noneMatch(other -> other.host.equals(key.host) && other.port == key.port)) {
+            sslContext.forget(key.host, key.port);
+        }
+    }
+
+    List<ConnectionPoolStats> stats() {
+        List<ConnectionPoolStats> stats = new ArrayList<>();
+        for (PooledClient endpoint : endpoints.values()) {
+            stats.add(endpoint.stats());
+        }
+        return stats;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PooledClient newEndpoint(ClientKey key) {
+        boolean tls = "https".equals(key.scheme);
+        return new PooledClient(key, clients.computeIfAbsent(key.version, this::newClient),
+            tls ? sslContext.handshakes(key.host, key.port) : null);
+    }
+
+    private HttpClient newClient(HttpClient.Version version) {
+        return HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .version(version)
+            .executor(executor)
+            .sslContext(sslContext)
+            .build();
+    }
+
+    static final class PooledClient {
+        private final ClientKey key;
+        private final HttpClient client;
+        private final LongAdder handshakes;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder http2Responses = new LongAdder();
+        private volatile Instant lastUsedAt;
+        private int holders;
+
+        private PooledClient(ClientKey key, HttpClient client, LongAdder handshakes) {
+            this.key = key;
+            this.client = client;
+            this.handshakes = handshakes;
+        }
+
+        HttpClient client() {
+            requests.increment();
+            lastUsedAt = Instant.now();
+            return client;
+        }
+
+        void recordResponse(HttpResponse<?> response) {
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            }
+        }
+
+        private ConnectionPoolStats stats() {
+            ConnectionPoolStats stats = new ConnectionPoolStats();
+            stats.setScheme(key.scheme);
+            stats.setHost(key.host);
+            stats.setPort(key.port);
+            stats.setClientVersion(key.version.name());
+            long requestCount = requests.sum();
+            stats.setRequests(requestCount);
+            stats.setHttp2Responses(http2Responses.sum());
+            if (handshakes != null) {
+                long handshakeCount = handshakes.sum();
+                stats.setTlsHandshakes(handshakeCount);
+                stats.setReusedConnections(Math.max(0, requestCount - handshakeCount));
+            }
+            stats.setLastUsedAt(lastUsedAt);
+            return stats;
+        }
+    }
+
+    private record ClientKey(String scheme, String host, int port, HttpClient.Version version) {
+    }
+}
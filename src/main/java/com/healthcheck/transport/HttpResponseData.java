@@ -1,5 +1,6 @@
 package com.healthcheck.transport;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -9,18 +10,44 @@ public class HttpResponseData {
     private final String body;
     private final Map<String, List<String>> headers;
     private final Duration duration;
+    private final long bytesRead;
+    private final boolean bodyTruncated;
+    private final Boolean bodyMatched;
+    private final JsonVerdict jsonVerdict;
+    private final ProbeTimings timings;
 
     public HttpResponseData(int statusCode, String body, Map<String, List<String>> headers, Duration duration) {
+        this(statusCode, body, headers, duration,
+            body == null ? 0 : body.getBytes(StandardCharsets.UTF_8).length, false, null, null);
+    }
+
+    public HttpResponseData(int statusCode, String body, Map<String, List<String>> headers, Duration duration,
+                            long bytesRead, boolean bodyTruncated, Boolean bodyMatched, JsonVerdict jsonVerdict) {
+        this(statusCode, body, headers, duration, bytesRead, bodyTruncated, bodyMatched, jsonVerdict, null);
+    }
+
+    public HttpResponseData(int statusCode, String body, Map<String, List<String>> headers, Duration duration,
+                            long bytesRead, boolean bodyTruncated, Boolean bodyMatched, JsonVerdict jsonVerdict,
+                            ProbeTimings timings) {
         this.statusCode = statusCode;
         this.body = body;
         this.headers = headers;
         this.duration = duration;
+        this.bytesRead = bytesRead;
+        this.bodyTruncated = bodyTruncated;
+        this.bodyMatched = bodyMatched;
+        this.jsonVerdict = jsonVerdict;
+        this.timings = timings;
     }
 
     public int getStatusCode() {
         return statusCode;
     }
 
+    /**
+     * The body as far as it was retained by the transport. When {@link #isBodyTruncated()} is true this is
+     * only a prefix of what the server sent.
+     */
     public String getBody() {
         return body;
     }
@@ -32,4 +59,34 @@ public class HttpResponseData {
     public Duration getDuration() {
         return duration;
     }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public boolean isBodyTruncated() {
+        return bodyTruncated;
+    }
+
+    /**
+     * Whether the target's expected substring was seen while streaming the body, or {@code null} when the
+     * transport did not evaluate it and the caller has to search {@link #getBody()} itself.
+     */
+    public Boolean getBodyMatched() {
+        return bodyMatched;
+    }
+
+    /**
+     * The streamed JSON validation verdict, or {@code null} when the transport did not validate the body.
+     */
+    public JsonVerdict getJsonVerdict() {
+        return jsonVerdict;
+    }
+
+    /**
+     * Per-phase breakdown of {@link #getDuration()}, or {@code null} when the transport did not time the phases.
+     */
+    public ProbeTimings getTimings() {
+        return timings;
+    }
 }
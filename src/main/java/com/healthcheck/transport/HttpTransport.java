@@ -1,7 +1,38 @@
 package com.healthcheck.transport;
 
+import com.healthcheck.model.ConnectionPoolStats;
 import com.healthcheck.model.Target;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 public interface HttpTransport {
     HttpResponseData execute(Target target) throws Exception;
+
+    default CompletableFuture<HttpResponseData> executeAsync(Target target) {
+        try {
+            return CompletableFuture.completedFuture(execute(target));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Compiles whatever the transport caches per target, until {@link #release} is called for it. Throws
+     * {@link IllegalArgumentException} if the target can never be probed, e.g. a malformed URL or a restricted
+     * header.
+     */
+    default void prepare(Target target) {
+    }
+
+    default void release(UUID targetId) {
+    }
+
+    default List<ConnectionPoolStats> connectionStats() {
+        return List.of();
+    }
+
+    default void close() {
+    }
 }
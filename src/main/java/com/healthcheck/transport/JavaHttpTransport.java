@@ -1,68 +1,206 @@
 package com.healthcheck.transport;
 
-import com.healthcheck.model.HttpMethod;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.healthcheck.model.ConnectionPoolStats;
 import com.healthcheck.model.Target;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Probes through pooled JDK {@code HttpClient}s. When the DNS cache is enabled the target host is resolved
+ * through a {@link CachingHostResolver} before the request is sent: a cached failure fails the probe
+ * without touching the network, and the time spent resolving is reported as the DNS phase of
+ * {@link HttpResponseData#getTimings()}. The JDK 17 client cannot be handed a resolver, so it still resolves
+ * the host itself, from the JVM address cache the lookup just filled; the addresses returned here are only
+ * used to decide whether to send.
+ */
 public class JavaHttpTransport implements HttpTransport {
-    private final HttpClient httpClient;
+    private final HttpClientPool clientPool = new HttpClientPool();
+    private final Map<UUID, RequestTemplate> templates = new ConcurrentHashMap<>();
+    private final TransportSettings settings;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ExecutorService lookupExecutor;
+    private final CachingHostResolver resolver;
 
     public JavaHttpTransport() {
-        this.httpClient = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .version(HttpClient.Version.HTTP_1_1)
-            .build();
+        this(new TransportSettings());
+    }
+
+    public JavaHttpTransport(TransportSettings settings) {
+        this(settings, HostResolver.SYSTEM);
+    }
+
+    public JavaHttpTransport(TransportSettings settings, HostResolver hostResolver) {
+        this.settings = settings;
+        if (settings.isDnsCacheEnabled()) {
+            AtomicInteger counter = new AtomicInteger();
+            this.lookupExecutor = Executors.newFixedThreadPool(Math.max(1, settings.getDnsLookupThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "health-check-dns-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.resolver = new CachingHostResolver(hostResolver, lookupExecutor, settings.getDnsNegativeTtl());
+        } else {
+            this.lookupExecutor = null;
+            this.resolver = null;
+        }
     }
 
     @Override
     public HttpResponseData execute(Target target) throws Exception {
-        HttpRequest.Builder builder = HttpRequest.newBuilder()
-            .uri(URI.create(target.getUrl()))
-            .timeout(target.getTimeout());
+        RequestTemplate template = template(target);
+        long startNanos = System.nanoTime();
+        if (resolver != null) {
+            try {
+                resolver.resolve(template.request().uri().getHost()).get();
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+            }
+        }
+        HttpClientPool.PooledClient pooled = template.client();
+        long sendNanos = System.nanoTime();
+        HttpResponse<BoundedBodySubscriber.Capture> response = pooled.client().send(template.request(), bodyHandler(target));
+        pooled.recordResponse(response);
+        return toResponseData(response, startNanos, sendNanos);
+    }
 
-        if (target.getContentType() != null && !target.getContentType().isBlank()) {
-            builder.header("Content-Type", target.getContentType());
+    @Override
+    public CompletableFuture<HttpResponseData> executeAsync(Target target) {
+        RequestTemplate template;
+        try {
+            template = template(target);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        long startNanos = System.nanoTime();
+        if (resolver == null) {
+            return send(target, template, startNanos);
         }
+        return resolver.resolve(template.request().uri().getHost())
+            .thenCompose(addresses -> send(target, template, startNanos));
+    }
 
-        if (target.getHeaders() != null) {
-            for (Map.Entry<String, String> entry : target.getHeaders().entrySet()) {
-                builder.header(entry.getKey(), entry.getValue());
-            }
+    private CompletableFuture<HttpResponseData> send(Target target, RequestTemplate template, long startNanos) {
+        HttpClientPool.PooledClient pooled = template.client();
+        long sendNanos = System.nanoTime();
+        return pooled.client().sendAsync(template.request(), bodyHandler(target))
+            .thenApply(response -> {
+                pooled.recordResponse(response);
+                return toResponseData(response, startNanos, sendNanos);
+            });
+    }
+
+    @Override
+    public void prepare(Target target) {
+        RequestTemplate previous = templates.put(target.getId(), compile(target));
+        if (previous != null) {
+            clientPool.release(previous.client());
         }
+    }
 
-        Optional<String> body = Optional.ofNullable(target.getRequestBody());
-        if (target.getMethod() == HttpMethod.HEAD) {
-            builder.method("HEAD", HttpRequest.BodyPublishers.noBody());
-        } else if (target.getMethod() == HttpMethod.POST) {
-            builder.POST(body.map(HttpRequest.BodyPublishers::ofString)
-                .orElseGet(HttpRequest.BodyPublishers::noBody));
-        } else if (target.getMethod() == HttpMethod.PUT) {
-            builder.PUT(body.map(HttpRequest.BodyPublishers::ofString)
-                .orElseGet(HttpRequest.BodyPublishers::noBody));
-        } else if (target.getMethod() == HttpMethod.DELETE) {
-            if (body.isPresent()) {
-                builder.method("DELETE", HttpRequest.BodyPublishers.ofString(body.get()));
-            } else {
-                builder.DELETE();
-            }
-        } else {
-            builder.GET();
+    @Override
+    public void release(UUID targetId) {
+        RequestTemplate removed = templates.remove(targetId);
+        if (removed != null) {
+            clientPool.release(removed.client());
         }
+    }
 
-        HttpRequest request = builder.build();
-        Instant start = Instant.now();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        Duration duration = Duration.between(start, Instant.now());
+    @Override
+    public List<ConnectionPoolStats> connectionStats() {
+        return clientPool.stats();
+    }
+
+    @Override
+    public void close() {
+        clientPool.shutdown();
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdownNow();
+        }
+    }
 
-        return new HttpResponseData(response.statusCode(), response.body(), response.headers().map(), duration);
+    CachingHostResolver resolver() {
+        return resolver;
+    }
+
+    /**
+     * The cached template for {@code target}, recompiled if a request field has changed since. Only targets
+     * passed to {@link #prepare} and not yet released are cached, so a probe still in flight when its target
+     * is deleted cannot put the template back.
+     */
+    RequestTemplate template(Target target) {
+        RequestTemplate cached = templates.get(target.getId());
+        if (cached != null && cached.matches(target)) {
+            return cached;
+        }
+        RequestTemplate compiled = compile(target);
+        RequestTemplate stored = templates.computeIfPresent(target.getId(),
+            (id, current) -> current == cached ? compiled : current);
+        clientPool.release(stored == compiled ? cached.client() : compiled.client());
+        return compiled;
+    }
+
+    private RequestTemplate compile(Target target) {
+        return RequestTemplate.compile(target, settings.getDefaultProtocol(), clientPool);
+    }
+
+    private HttpResponse.BodyHandler<BoundedBodySubscriber.Capture> bodyHandler(Target target) {
+        return responseInfo -> new BoundedBodySubscriber(
+            charsetOf(responseInfo.headers()),
+            target.getExpectedBodyContains(),
+            settings.getMaxPreviewBytes(),
+            target.isExpectJson() ? jsonValidator() : null,
+            settings.getMaxBodyBytes());
+    }
+
+    private JsonStreamValidator jsonValidator() {
+        try {
+            return new JsonStreamValidator(jsonFactory, settings.getJsonMaxDepth(), settings.getJsonMaxTokens());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpResponseData toResponseData(HttpResponse<BoundedBodySubscriber.Capture> response, long startNanos,
+                                            long sendNanos) {
+        BoundedBodySubscriber.Capture capture = response.body();
+        ProbeTimings timings = ProbeTimings.of(startNanos, sendNanos, capture.getHeadersNanos(), capture.getEndNanos(),
+            resolver != null);
+        return new HttpResponseData(response.statusCode(), capture.getBody(), response.headers().map(),
+            Duration.ofNanos(timings.getTotalNanos()), capture.getBytesRead(), capture.isTruncated(),
+            capture.getMatched(), capture.getJsonVerdict(), timings);
+    }
+
+    private static Charset charsetOf(HttpHeaders headers) {
+        Optional<String> contentType = headers.firstValue("Content-Type");
+        if (contentType.isPresent()) {
+            for (String parameter : contentType.get().split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                    } catch (IllegalArgumentException ignored) {
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
     }
 }
@@ -0,0 +1,114 @@
+package com.healthcheck.transport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decides whether a body is exactly one well-formed JSON document by walking parser tokens, without
+ * building a tree. Bytes can be fed incrementally as they arrive; an invalid verdict is available as soon
+ * as the offending token is seen, a valid one only after {@link #finish()}.
+ */
+public class JsonStreamValidator {
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final int maxDepth;
+    private final long maxTokens;
+
+    private int depth;
+    private long tokens;
+    private boolean rootComplete;
+    private JsonVerdict verdict;
+
+    public JsonStreamValidator(JsonFactory factory, int maxDepth, long maxTokens) throws IOException {
+        this(factory.createNonBlockingByteBufferParser(), maxDepth, maxTokens);
+    }
+
+    private JsonStreamValidator(JsonParser parser, int maxDepth, long maxTokens) {
+        this.parser = parser;
+        this.feeder = parser.getNonBlockingInputFeeder() instanceof ByteBufferFeeder byteBufferFeeder
+            ? byteBufferFeeder
+            : null;
+        this.maxDepth = maxDepth;
+        this.maxTokens = maxTokens;
+    }
+
+    public static JsonVerdict validate(JsonFactory factory, String body, int maxDepth, long maxTokens) {
+        if (body == null) {
+            return JsonVerdict.EMPTY;
+        }
+        try {
+            return new JsonStreamValidator(factory.createParser(body), maxDepth, maxTokens).finish();
+        } catch (IOException ex) {
+            return JsonVerdict.MALFORMED;
+        }
+    }
+
+    /**
+     * Feeds the remaining bytes of {@code buffer}. The buffer's position is not changed.
+     */
+    public void feed(ByteBuffer buffer) {
+        if (verdict != null || !buffer.hasRemaining()) {
+            return;
+        }
+        try {
+            feeder.feedInput(buffer.duplicate());
+            drain();
+        } catch (IOException ex) {
+            verdict = JsonVerdict.MALFORMED;
+        }
+    }
+
+    public boolean isDecided() {
+        return verdict != null;
+    }
+
+    public JsonVerdict finish() {
+        if (verdict != null) {
+            return verdict;
+        }
+        try {
+            if (feeder != null) {
+                feeder.endOfInput();
+            }
+            drain();
+        } catch (IOException ex) {
+            verdict = JsonVerdict.MALFORMED;
+        }
+        if (verdict == null) {
+            verdict = rootComplete ? JsonVerdict.VALID : tokens == 0 ? JsonVerdict.EMPTY : JsonVerdict.MALFORMED;
+        }
+        return verdict;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (verdict == null && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (rootComplete) {
+                verdict = JsonVerdict.MALFORMED;
+                return;
+            }
+            tokens++;
+            if (maxTokens > 0 && tokens > maxTokens) {
+                verdict = JsonVerdict.TOO_LARGE;
+                return;
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                depth++;
+                if (maxDepth > 0 && depth > maxDepth) {
+                    verdict = JsonVerdict.TOO_DEEP;
+                    return;
+                }
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                depth--;
+            }
+            if (depth == 0 && token != JsonToken.FIELD_NAME) {
+                rootComplete = true;
+            }
+        }
+    }
+}
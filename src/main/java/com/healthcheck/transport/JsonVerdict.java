@@ -0,0 +1,9 @@
+package com.healthcheck.transport;
+
+public enum JsonVerdict {
+    VALID,
+    EMPTY,
+    MALFORMED,
+    TOO_DEEP,
+    TOO_LARGE
+}
@@ -0,0 +1,61 @@
+package com.healthcheck.transport;
+
+import com.healthcheck.model.ProbePhase;
+
+/**
+ * Phase durations of one request, in nanoseconds from {@link System#nanoTime()}. A phase the transport did not
+ * observe is -1. {@link java.net.http.HttpClient} does not report connection setup, so connecting and the TLS
+ * handshake of a new connection are part of {@link ProbePhase#TTFB}.
+ */
+public final class ProbeTimings {
+    private final long dnsNanos;
+    private final long ttfbNanos;
+    private final long downloadNanos;
+    private final long totalNanos;
+
+    public ProbeTimings(long dnsNanos, long ttfbNanos, long downloadNanos, long totalNanos) {
+        this.dnsNanos = dnsNanos;
+        this.ttfbNanos = ttfbNanos;
+        this.downloadNanos = downloadNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Timings from the marks taken around one request: {@code startNanos} before any lookup, {@code sendNanos}
+     * when the request was handed to the client (equal to {@code startNanos} when there was no lookup),
+     * {@code headersNanos} when the response headers arrived and {@code endNanos} when the body was done.
+     */
+    static ProbeTimings of(long startNanos, long sendNanos, long headersNanos, long endNanos, boolean resolved) {
+        return new ProbeTimings(resolved ? sendNanos - startNanos : -1, headersNanos - sendNanos,
+            endNanos - headersNanos, endNanos - startNanos);
+    }
+
+    public long nanos(ProbePhase phase) {
+        switch (phase) {
+            case DNS:
+                return dnsNanos;
+            case TTFB:
+                return ttfbNanos;
+            case DOWNLOAD:
+                return downloadNanos;
+            default:
+                return totalNanos;
+        }
+    }
+
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    public long getTtfbNanos() {
+        return ttfbNanos;
+    }
+
+    public long getDownloadNanos() {
+        return downloadNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
@@ -0,0 +1,122 @@
+package com.healthcheck.transport;
+
+import com.healthcheck.model.HttpMethod;
+import com.healthcheck.model.HttpProtocol;
+import com.healthcheck.model.Target;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A target compiled into an immutable {@link HttpRequest} plus the pooled client it is sent through.
+ * {@code HttpRequest} instances and byte-array publishers can be sent any number of times, so a template is
+ * reused for every probe until one of the fields it was built from is replaced.
+ */
+final class RequestTemplate {
+    private final String url;
+    private final HttpMethod method;
+    private final Map<String, String> headers;
+    private final String requestBody;
+    private final String contentType;
+    private final Duration timeout;
+    private final HttpProtocol protocol;
+
+    private final HttpRequest request;
+    private final HttpClientPool.PooledClient client;
+
+    private RequestTemplate(Target target, HttpRequest request, HttpClientPool.PooledClient client) {
+        this.url = target.getUrl();
+        this.method = target.getMethod();
+        this.headers = target.getHeaders();
+        this.requestBody = target.getRequestBody();
+        this.contentType = target.getContentType();
+        this.timeout = target.getTimeout();
+        this.protocol = target.getProtocol();
+        this.request = request;
+        this.client = client;
+    }
+
+    static RequestTemplate compile(Target target, HttpProtocol defaultProtocol, HttpClientPool pool) {
+        URI uri = parseUrl(target.getUrl());
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(uri)
+            .timeout(target.getTimeout());
+
+        if (target.getContentType() != null && !target.getContentType().isBlank()) {
+            builder.header("Content-Type", target.getContentType());
+        }
+
+        if (target.getHeaders() != null) {
+            for (Map.Entry<String, String> entry : target.getHeaders().entrySet()) {
+                builder.header(entry.getKey(), entry.getValue());
+            }
+        }
+
+        HttpRequest.BodyPublisher body = target.getRequestBody() == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(target.getRequestBody().getBytes(StandardCharsets.UTF_8));
+        if (target.getMethod() == HttpMethod.HEAD) {
+            builder.method("HEAD", HttpRequest.BodyPublishers.noBody());
+        } else if (target.getMethod() == HttpMethod.POST) {
+            builder.POST(body);
+        } else if (target.getMethod() == HttpMethod.PUT) {
+            builder.PUT(body);
+        } else if (target.getMethod() == HttpMethod.DELETE) {
+            if (target.getRequestBody() != null) {
+                builder.method("DELETE", body);
+            } else {
+                builder.DELETE();
+            }
+        } else {
+            builder.GET();
+        }
+
+        HttpProtocol effective = target.getProtocol() != null ? target.getProtocol() : defaultProtocol;
+        return new RequestTemplate(target, builder.build(), pool.clientFor(uri, effective));
+    }
+
+    private static URI parseUrl(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("Target URL is required");
+        }
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Malformed target URL: " + ex.getMessage(), ex);
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Target URL must use http or https: " + url);
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Target URL has no host: " + url);
+        }
+        return uri;
+    }
+
+    /**
+     * True while the target still holds the same field instances the template was built from. Updates
+     * replace fields rather than mutating them, so identity comparison is enough.
+     */
+    boolean matches(Target target) {
+        return url == target.getUrl()
+            && method == target.getMethod()
+            && headers == target.getHeaders()
+            && requestBody == target.getRequestBody()
+            && contentType == target.getContentType()
+            && timeout == target.getTimeout()
+            && protocol == target.getProtocol();
+    }
+
+    HttpRequest request() {
+        return request;
+    }
+
+    HttpClientPool.PooledClient client() {
+        return client;
+    }
+}
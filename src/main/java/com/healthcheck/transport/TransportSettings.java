@@ -0,0 +1,80 @@
+package com.healthcheck.transport;
+
+import com.healthcheck.model.HttpProtocol;
+
+import java.time.Duration;
+
+public class TransportSettings {
+    private int maxPreviewBytes = 2048;
+    private long maxBodyBytes = 1024 * 1024;
+    private int jsonMaxDepth = 256;
+    private long jsonMaxTokens;
+    private HttpProtocol defaultProtocol = HttpProtocol.HTTP_2;
+    private boolean dnsCacheEnabled = true;
+    private Duration dnsNegativeTtl = Duration.ofSeconds(5);
+    private int dnsLookupThreads = 4;
+
+    public int getMaxPreviewBytes() {
+        return maxPreviewBytes;
+    }
+
+    public void setMaxPreviewBytes(int maxPreviewBytes) {
+        this.maxPreviewBytes = maxPreviewBytes;
+    }
+
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public int getJsonMaxDepth() {
+        return jsonMaxDepth;
+    }
+
+    public void setJsonMaxDepth(int jsonMaxDepth) {
+        this.jsonMaxDepth = jsonMaxDepth;
+    }
+
+    public long getJsonMaxTokens() {
+        return jsonMaxTokens;
+    }
+
+    public void setJsonMaxTokens(long jsonMaxTokens) {
+        this.jsonMaxTokens = jsonMaxTokens;
+    }
+
+    public HttpProtocol getDefaultProtocol() {
+        return defaultProtocol;
+    }
+
+    public void setDefaultProtocol(HttpProtocol defaultProtocol) {
+        this.defaultProtocol = defaultProtocol;
+    }
+
+    public boolean isDnsCacheEnabled() {
+        return dnsCacheEnabled;
+    }
+
+    public void setDnsCacheEnabled(boolean dnsCacheEnabled) {
+        this.dnsCacheEnabled = dnsCacheEnabled;
+    }
+
+    public Duration getDnsNegativeTtl() {
+        return dnsNegativeTtl;
+    }
+
+    public void setDnsNegativeTtl(Duration dnsNegativeTtl) {
+        this.dnsNegativeTtl = dnsNegativeTtl;
+    }
+
+    public int getDnsLookupThreads() {
+        return dnsLookupThreads;
+    }
+
+    public void setDnsLookupThreads(int dnsLookupThreads) {
+        this.dnsLookupThreads = dnsLookupThreads;
+    }
+}
@@ -2,6 +2,7 @@ package com.healthcheck.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcheck.model.*;
+import com.healthcheck.service.DuplicateExternalKeyException;
 import com.healthcheck.service.HealthCheckService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,8 @@ import java.util.UUID;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +33,12 @@ public class HealthCheckControllerTest {
     @MockBean
     private HealthCheckService service;
 
+    @MockBean
+    private HealthEventStream eventStream;
+
+    @MockBean
+    private TargetNdjson ndjson;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -77,4 +86,76 @@ public class HealthCheckControllerTest {
         mockMvc.perform(post("/api/targets/" + UUID.randomUUID() + "/check"))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    void createTargetWithUnprobeableUrlReturnsBadRequest() throws Exception {
+        CreateTargetRequest request = new CreateTargetRequest();
+        request.setName("API");
+        request.setUrl("https://exa mple.com/health");
+        request.setMethod(HttpMethod.GET);
+        request.setTimeout(Duration.ofSeconds(2));
+
+        when(service.createTarget(any(CreateTargetRequest.class)))
+            .thenThrow(new IllegalArgumentException("Malformed target URL"));
+
+        mockMvc.perform(post("/api/targets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error", is("Malformed target URL")));
+    }
+
+    @Test
+    void createTargetWithDuplicateExternalKeyReturnsConflict() throws Exception {
+        CreateTargetRequest request = new CreateTargetRequest();
+        request.setName("API");
+        request.setUrl("https://example.com/health");
+        request.setExternalKey("api");
+
+        when(service.createTarget(any(CreateTargetRequest.class)))
+            .thenThrow(new DuplicateExternalKeyException("api"));
+
+        mockMvc.perform(post("/api/targets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error", is("externalKey already in use: api")));
+    }
+
+    @Test
+    void resultsCarryETagAndCursorAndAnswer304WhenUnchanged() throws Exception {
+        UUID id = UUID.randomUUID();
+        HealthCheckResult result = HealthCheckResult.builder().targetId(id).status(HealthStatus.DOWN).build();
+        when(service.getResultsVersion()).thenReturn(7L);
+        when(service.getResults(any(ResultsQuery.class))).thenReturn(new ResultsPage(Map.of(id, result), id));
+
+        String etag = mockMvc.perform(get("/api/health/results").param("status", "DOWN").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HealthCheckController.NEXT_CURSOR_HEADER, id.toString()))
+            .andExpect(jsonPath("$['" + id + "'].status", is("DOWN")))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/health/results").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        verify(service, times(1)).getResults(any(ResultsQuery.class));
+
+        when(service.getResultsVersion()).thenReturn(8L);
+        mockMvc.perform(get("/api/health/results").header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void bulkImportStreamsBodyToImporter() throws Exception {
+        BulkImportResponse response = new BulkImportResponse();
+        response.setCreated(2);
+        when(ndjson.importTargets(any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/targets:bulk")
+                .contentType(TargetNdjson.MEDIA_TYPE)
+                .content("{\"name\":\"a\"}\n{\"name\":\"b\"}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created", is(2)));
+    }
 }
@@ -0,0 +1,79 @@
+package com.healthcheck.api;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HealthEventStreamTest {
+    private static HealthCheckResult result(HealthStatus status, ErrorCategory category) {
+        return HealthCheckResult.builder().status(status).errorCategory(category).build();
+    }
+
+    private static final HealthCheckResult UP = result(HealthStatus.UP, ErrorCategory.NONE);
+    private static final HealthCheckResult TIMEOUT = result(HealthStatus.DOWN, ErrorCategory.TIMEOUT);
+    private static final HealthCheckResult HTTP_ERROR = result(HealthStatus.DOWN, ErrorCategory.HTTP_ERROR);
+
+    @Test
+    void burstsCoalesceIntoOneTransitionPerTarget() {
+        HealthEventStream.Subscriber subscriber =
+            new HealthEventStream.Subscriber(new SseEmitter(), null, null, true, 10);
+        UUID flapping = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+
+        subscriber.offer(flapping, UP, TIMEOUT);
+        subscriber.offer(flapping, TIMEOUT, UP);
+        subscriber.offer(failing, UP, TIMEOUT);
+        subscriber.offer(failing, TIMEOUT, HTTP_ERROR);
+        subscriber.offer(failing, HTTP_ERROR, HTTP_ERROR);
+
+        HealthEventStream.Batch batch = subscriber.drain();
+        assertThat(batch.resync).isFalse();
+        assertThat(batch.events).hasSize(1);
+        HealthEventStream.Pending pending = batch.events.get(0);
+        assertThat(pending.kind).isEqualTo(HealthEventStream.TRANSITION);
+        assertThat(pending.event.getTargetId()).isEqualTo(failing);
+        assertThat(pending.event.getPreviousStatus()).isEqualTo(HealthStatus.UP);
+        assertThat(pending.event.getErrorCategory()).isEqualTo(ErrorCategory.HTTP_ERROR);
+        assertThat(subscriber.drain().events).isEmpty();
+    }
+
+    @Test
+    void filtersByTargetAndEitherSideOfTheTransition() {
+        UUID watched = UUID.randomUUID();
+        HealthEventStream.Subscriber subscriber = new HealthEventStream.Subscriber(
+            new SseEmitter(), Set.of(watched), Set.of(HealthStatus.DOWN), false, 10);
+
+        subscriber.offer(UUID.randomUUID(), UP, TIMEOUT);
+        subscriber.offer(watched, null, UP);
+        assertThat(subscriber.drain().events).isEmpty();
+
+        subscriber.offer(watched, TIMEOUT, UP);
+        subscriber.offer(UUID.randomUUID(), TIMEOUT, UP);
+        assertThat(subscriber.drain().events).extracting(pending -> pending.kind)
+            .containsExactly(HealthEventStream.TRANSITION);
+    }
+
+    @Test
+    void overflowDropsTheQueueAndRequestsResync() {
+        HealthEventStream.Subscriber subscriber =
+            new HealthEventStream.Subscriber(new SseEmitter(), null, null, false, 2);
+
+        for (int i = 0; i < 5; i++) {
+            subscriber.offer(UUID.randomUUID(), null, UP);
+        }
+
+        HealthEventStream.Batch batch = subscriber.drain();
+        assertThat(batch.resync).isTrue();
+        assertThat(batch.events).isEmpty();
+        subscriber.offer(UUID.randomUUID(), UP, null);
+        assertThat(subscriber.drain().events).extracting(pending -> pending.kind)
+            .containsExactly(HealthEventStream.REMOVED);
+    }
+}
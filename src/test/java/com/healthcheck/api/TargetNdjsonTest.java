@@ -0,0 +1,87 @@
+package com.healthcheck.api;
+
+import com.healthcheck.model.BulkImportResponse;
+import com.healthcheck.model.Target;
+import com.healthcheck.service.HealthCheckProperties;
+import com.healthcheck.service.HealthCheckService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TargetNdjsonTest {
+    private HealthCheckService service;
+    private TargetNdjson ndjson;
+
+    @BeforeEach
+    void setup() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setPerTargetScheduling(false);
+        service = new HealthCheckService(properties);
+        ndjson = new TargetNdjson(service, Validation.buildDefaultValidatorFactory().getValidator(),
+            Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterEach
+    void teardown() {
+        service.shutdown();
+    }
+
+    private BulkImportResponse importLines(String... lines) throws IOException {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return ndjson.importTargets(new ByteArrayInputStream(body));
+    }
+
+    @Test
+    void importsValidLinesAndReportsBadOnesByLineNumber() throws IOException {
+        BulkImportResponse response = importLines(
+            "{\"externalKey\":\"a\",\"name\":\"A\",\"url\":\"https://a.example.com/health\",\"timeout\":\"PT2S\"}",
+            "{\"name\":\"broken\",",
+            "",
+            "{\"externalKey\":\"b\",\"name\":\"\",\"url\":\"ftp://b.example.com\"}",
+            "{\"externalKey\":\"c\",\"name\":\"C\",\"url\":\"https://c.example.com/health\",\"headers\":{\"Host\":\"x\"}}",
+            "{\"name\":\"D\",\"url\":\"https://d.example.com/health\"}");
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(error -> error.getLine()).containsExactly(2L, 4L, 5L);
+        assertThat(response.getErrors().get(0).getMessage()).startsWith("Invalid JSON");
+        assertThat(response.getErrors().get(1).getMessage()).contains("name").contains("url");
+        assertThat(response.getErrors().get(2).getExternalKey()).isEqualTo("c");
+        assertThat(service.listTargets()).extracting(Target::getName).containsExactlyInAnyOrder("A", "D");
+    }
+
+    @Test
+    void reimportUpdatesByExternalKeyAndExportRoundTrips() throws IOException {
+        importLines("{\"externalKey\":\"a\",\"name\":\"A\",\"url\":\"https://a.example.com/health\"}");
+        Target original = service.listTargets().get(0);
+
+        BulkImportResponse again = importLines(
+            "{\"externalKey\":\"a\",\"name\":\"A2\",\"url\":\"https://a.example.com/v2\",\"checkInterval\":\"PT45S\"}");
+        assertThat(again.getCreated()).isZero();
+        assertThat(again.getUpdated()).isEqualTo(1);
+        assertThat(service.listTargets()).hasSize(1);
+        Target updated = service.getTarget(original.getId());
+        assertThat(updated.getName()).isEqualTo("A2");
+        assertThat(updated.getCheckInterval()).isEqualTo(Duration.ofSeconds(45));
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        ndjson.exportTargets(exported);
+        String[] lines = exported.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"externalKey\":\"a\"").contains("\"id\":\"" + original.getId() + "\"");
+
+        BulkImportResponse reimported = importLines(lines);
+        assertThat(reimported.getUpdated()).isEqualTo(1);
+        assertThat(service.getTarget(original.getId())).usingRecursiveComparison().isEqualTo(updated);
+    }
+}
@@ -0,0 +1,111 @@
+package com.healthcheck.persistence;
+
+import com.healthcheck.model.HttpMethod;
+import com.healthcheck.model.HttpProtocol;
+import com.healthcheck.model.ProbePhase;
+import com.healthcheck.model.Target;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TargetLogTest {
+    @TempDir
+    Path directory;
+
+    private static Target target(String name) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", "Bearer token");
+        headers.put("X-Region", "eu-wést-1");
+        Target target = new Target(UUID.randomUUID(), name, "https://example.com/" + name, HttpMethod.POST,
+            headers, "{\"probe\":true}", "application/json", Duration.ofSeconds(3), 200, 299, true, null,
+            Duration.ofMillis(1500), 2);
+        target.setCheckInterval(Duration.ofSeconds(45));
+        target.setProtocol(HttpProtocol.H2C);
+        target.setRateLimit(0.5);
+        target.setSlowThresholdPhase(ProbePhase.TTFB);
+        return target;
+    }
+
+    @Test
+    void replaysCreatesUpdatesAndDeletesAfterReopen() throws IOException {
+        Target kept = target("kept");
+        Target deleted = target("deleted");
+        try (TargetLog log = TargetLog.open(directory, 100, false)) {
+            log.put(kept);
+            log.put(deleted);
+            kept.setName("renamed");
+            log.put(kept);
+            log.delete(deleted.getId());
+        }
+
+        try (TargetLog log = TargetLog.open(directory, 100, false)) {
+            assertThat(log.targets()).hasSize(1);
+            Target restored = log.targets().get(0);
+            assertThat(restored).usingRecursiveComparison().isEqualTo(kept);
+            assertThat(restored.getHeaders()).containsEntry("X-Region", "eu-wést-1");
+            assertThat(restored.getExpectedBodyContains()).isNull();
+        }
+    }
+
+    @Test
+    void compactsIntoSnapshotAndEmptiesLog() throws IOException {
+        try (TargetLog log = TargetLog.open(directory, 3, false)) {
+            for (int i = 0; i < 4; i++) {
+                log.put(target("t" + i));
+            }
+            assertThat(Files.size(directory.resolve(TargetLog.LOG_FILE))).isGreaterThan(5);
+        }
+        assertThat(Files.exists(directory.resolve(TargetLog.SNAPSHOT_FILE))).isTrue();
+        assertThat(Files.size(directory.resolve(TargetLog.LOG_FILE))).isEqualTo(5);
+
+        try (TargetLog log = TargetLog.open(directory, 3, false)) {
+            assertThat(log.targets()).extracting(Target::getName).containsExactly("t0", "t1", "t2", "t3");
+        }
+    }
+
+    @Test
+    void recordThatTriggersCompactionSurvivesReopenWithoutClose() throws IOException {
+        Target doomed = target("doomed");
+        TargetLog crashed = TargetLog.open(directory, 3, false);
+        crashed.put(target("t0"));
+        crashed.put(target("t1"));
+        crashed.put(target("t2"));
+        crashed.put(doomed);
+        crashed.put(target("t3"));
+        crashed.delete(doomed.getId());
+
+        try (TargetLog log = TargetLog.open(directory, 3, false)) {
+            assertThat(log.targets()).extracting(Target::getName).containsExactly("t0", "t1", "t2", "t3");
+        }
+    }
+
+    @Test
+    void dropsTornRecordAtEndOfLogAndAppendsAfterLastGoodOne() throws IOException {
+        Target first = target("first");
+        TargetLog crashed = TargetLog.open(directory, 100, true);
+        crashed.put(first);
+        crashed.put(target("torn"));
+        try (FileChannel channel = FileChannel.open(directory.resolve(TargetLog.LOG_FILE), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (TargetLog log = TargetLog.open(directory, 100, false)) {
+            assertThat(log.targets()).extracting(Target::getName).containsExactly("first");
+            log.put(target("second"));
+        }
+        try (TargetLog log = TargetLog.open(directory, 100, false)) {
+            assertThat(log.targets()).extracting(Target::getName).containsExactly("first", "second");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.Target;
+import com.healthcheck.transport.HttpResponseData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AsyncFakeTransport extends FakeTransport {
+    private final ExecutorService completer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fake-transport-completer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public CompletableFuture<HttpResponseData> executeAsync(Target target) {
+        CompletableFuture<HttpResponseData> future = new CompletableFuture<>();
+        completer.execute(() -> {
+            try {
+                future.complete(execute(target));
+            } catch (Exception ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+}
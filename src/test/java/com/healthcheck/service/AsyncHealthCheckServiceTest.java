@@ -0,0 +1,13 @@
+package com.healthcheck.service;
+
+public class AsyncHealthCheckServiceTest extends HealthCheckServiceTest {
+    @Override
+    protected boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    protected FakeTransport createTransport() {
+        return new AsyncFakeTransport();
+    }
+}
@@ -0,0 +1,78 @@
+package com.healthcheck.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CheckEngineTest {
+    private CheckEngine engine;
+
+    @BeforeEach
+    void setup() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setVirtualThreads(false);
+        properties.setWorkerThreads(8);
+        properties.setMaxConcurrentChecks(4);
+        properties.setMaxConcurrentChecksPerHost(2);
+        engine = new CheckEngine(properties);
+    }
+
+    @AfterEach
+    void teardown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void perHostAndGlobalLimitsAreEnforced() throws Exception {
+        AtomicInteger slowRunning = new AtomicInteger();
+        AtomicInteger slowPeak = new AtomicInteger();
+        AtomicInteger totalRunning = new AtomicInteger();
+        AtomicInteger totalPeak = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> checks = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            String host = i % 2 == 0 ? "slow.example.com" : "host" + i + ".example.com";
+            checks.add(engine.submit(host, () -> CompletableFuture.supplyAsync(() -> {
+                boolean slow = host.startsWith("slow");
+                if (slow) {
+                    slowPeak.accumulateAndGet(slowRunning.incrementAndGet(), Math::max);
+                }
+                totalPeak.accumulateAndGet(totalRunning.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                totalRunning.decrementAndGet();
+                if (slow) {
+                    slowRunning.decrementAndGet();
+                }
+                return value;
+            })));
+        }
+
+        Thread.sleep(100);
+        assertThat(engine.getInFlight()).isEqualTo(4);
+        assertThat(engine.getQueued()).isEqualTo(6);
+        release.countDown();
+
+        for (int i = 0; i < checks.size(); i++) {
+            assertThat(checks.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+        assertThat(slowPeak.get()).isLessThanOrEqualTo(2);
+        assertThat(totalPeak.get()).isLessThanOrEqualTo(4);
+        assertThat(engine.getInFlight()).isZero();
+        assertThat(engine.getQueued()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.healthcheck.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerStateTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final CircuitBreakerState breaker = new CircuitBreakerState(clock::get);
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(millis * 1_000_000L);
+    }
+
+    @Test
+    void opensAtThresholdAndAdmitsTrialsAfterDeadline() {
+        breaker.recordFailure(2, 1000);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.CLOSED);
+        breaker.recordFailure(2, 1000);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.OPEN);
+        assertThat(breaker.tryAcquire(2)).isFalse();
+        assertThat(breaker.getRemainingOpenMillis()).isEqualTo(1000);
+
+        advanceMillis(1000);
+        assertThat(breaker.tryAcquire(2)).isTrue();
+        assertThat(breaker.tryAcquire(2)).isTrue();
+        assertThat(breaker.tryAcquire(2)).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.HALF_OPEN);
+
+        breaker.recordSuccess(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.HALF_OPEN);
+        breaker.recordSuccess(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.CLOSED);
+        assertThat(breaker.getTimesOpened()).isEqualTo(1);
+        assertThat(breaker.getTimesHalfOpened()).isEqualTo(1);
+        assertThat(breaker.getTimesClosed()).isEqualTo(1);
+        assertThat(breaker.getRejectedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void failedTrialReopensForAnotherWindow() {
+        breaker.recordFailure(1, 500);
+        advanceMillis(500);
+        assertThat(breaker.tryAcquire(1)).isTrue();
+
+        breaker.recordFailure(1, 500);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerState.State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.getTimesOpened()).isEqualTo(2);
+        advanceMillis(499);
+        assertThat(breaker.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    void concurrentCallersGetExactlyTheConfiguredTrials() throws Exception {
+        breaker.recordFailure(1, 100);
+        advanceMillis(100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int i = 0; i < 64; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                if (breaker.tryAcquire(3)) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted.get()).isEqualTo(3);
+        assertThat(breaker.getHalfOpenTrialsAdmitted()).isEqualTo(3);
+    }
+}
@@ -10,21 +10,40 @@ import java.util.Deque;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FakeTransport implements HttpTransport {
     private final Map<UUID, Deque<TransportOutcome>> outcomes = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> invocations = new ConcurrentHashMap<>();
+    private volatile CountDownLatch gate;
 
     public void enqueue(UUID targetId, TransportOutcome outcome) {
         outcomes.computeIfAbsent(targetId, key -> new ArrayDeque<>()).add(outcome);
     }
 
+    public void hold(CountDownLatch gate) {
+        this.gate = gate;
+    }
+
+    public int invocations(UUID targetId) {
+        AtomicInteger count = invocations.get(targetId);
+        return count == null ? 0 : count.get();
+    }
+
     @Override
     public HttpResponseData execute(Target target) throws Exception {
+        invocations.computeIfAbsent(target.getId(), key -> new AtomicInteger()).incrementAndGet();
+        CountDownLatch currentGate = gate;
+        if (currentGate != null) {
+            currentGate.await(5, TimeUnit.SECONDS);
+        }
         Deque<TransportOutcome> queue = outcomes.get(target.getId());
         if (queue == null || queue.isEmpty()) {
             return new HttpResponseData(200, "{}", Map.of(), Duration.ofMillis(50));
         }
-        TransportOutcome outcome = queue.poll();
+        TransportOutcome outcome = queue.size() > 1 ? queue.poll() : queue.peek();
         if (outcome.getException() != null) {
             throw outcome.getException();
         }
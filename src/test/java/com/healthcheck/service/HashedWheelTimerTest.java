@@ -0,0 +1,47 @@
+package com.healthcheck.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedWheelTimerTest {
+    private final HashedWheelTimer timer = new HashedWheelTimer(5, 8, "test-wheel");
+
+    @AfterEach
+    void teardown() {
+        timer.stop();
+    }
+
+    @Test
+    void firesNoEarlierThanDeadlineAcrossRounds() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long[] firedAt = new long[1];
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(120);
+
+        timer.schedule(() -> {
+            firedAt[0] = System.nanoTime();
+            fired.countDown();
+        }, deadline);
+
+        assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0]).isGreaterThanOrEqualTo(deadline);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws Exception {
+        AtomicBoolean fired = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.schedule(() -> fired.set(true),
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertThat(timeout.cancel()).isTrue();
+        Thread.sleep(100);
+
+        assertThat(fired).isFalse();
+        assertThat(timeout.isCancelled()).isTrue();
+    }
+}
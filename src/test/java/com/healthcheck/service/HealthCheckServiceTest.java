@@ -3,23 +3,40 @@ package com.healthcheck.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.healthcheck.model.*;
 import com.healthcheck.transport.HttpResponseData;
+import com.healthcheck.transport.ProbeTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.net.ssl.SSLHandshakeException;
 import java.net.ConnectException;
 import java.net.UnknownHostException;
 import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class HealthCheckServiceTest {
     private HealthCheckService service;
     private FakeTransport transport;
     private HealthCheckProperties properties;
+    private final ExecutorService callerPool = Executors.newFixedThreadPool(5);
 
     @BeforeEach
     void setup() {
@@ -28,10 +45,26 @@ public class HealthCheckServiceTest {
         properties.setCircuitFailureThreshold(2);
         properties.setCircuitOpenDuration(Duration.ofSeconds(60));
         properties.setRetryBaseBackoff(Duration.ofMillis(1));
-        transport = new FakeTransport();
+        properties.setAsyncTransport(isAsync());
+        properties.setPerTargetScheduling(false);
+        transport = createTransport();
         service = new HealthCheckService(properties, new ObjectMapper(), transport);
     }
 
+    @AfterEach
+    void teardown() {
+        service.shutdown();
+        callerPool.shutdownNow();
+    }
+
+    protected boolean isAsync() {
+        return false;
+    }
+
+    protected FakeTransport createTransport() {
+        return new FakeTransport();
+    }
+
     private Target createDefaultTarget(boolean expectJson) {
         CreateTargetRequest request = new CreateTargetRequest();
         request.setName("Test API");
@@ -66,6 +99,7 @@ public class HealthCheckServiceTest {
         HealthCheckResult result = service.checkTarget(target.getId(), true);
 
         assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.DNS_FAILURE);
+        assertThat(result.getAttempts()).isEqualTo(1);
     }
 
     @Test
@@ -110,6 +144,24 @@ public class HealthCheckServiceTest {
         assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.RATE_LIMIT);
     }
 
+    @Test
+    void retryAfterParksHostAndLaterProbesAreSkippedWithoutReplacingTheResult() {
+        Target target = createDefaultTarget(false);
+        transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(429, "slow down", Map.of("Retry-After", List.of("60")), Duration.ofMillis(50))));
+
+        HealthCheckResult limited = service.checkTarget(target.getId(), true);
+        HealthCheckResult skipped = service.checkTarget(target.getId(), true);
+
+        assertThat(limited.getErrorCategory()).isEqualTo(ErrorCategory.RATE_LIMIT);
+        assertThat(limited.getAttempts()).isEqualTo(1);
+        assertThat(skipped.getStatus()).isEqualTo(HealthStatus.SKIPPED);
+        assertThat(skipped.getErrorCategory()).isEqualTo(ErrorCategory.THROTTLED);
+        assertThat(transport.invocations(target.getId())).isEqualTo(1);
+        assertThat(service.getLastResults().get(target.getId()).getErrorCategory()).isEqualTo(ErrorCategory.RATE_LIMIT);
+        assertThat(service.getEngineStats().getSkippedChecks()).isEqualTo(1);
+    }
+
     @Test
     void invalidJsonIsHandled() {
         Target target = createDefaultTarget(true);
@@ -121,6 +173,30 @@ public class HealthCheckServiceTest {
         assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.INVALID_JSON);
     }
 
+    @Test
+    void trailingContentAfterJsonIsInvalid() {
+        Target target = createDefaultTarget(true);
+        transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "{\"status\":\"ok\"} trailing", Map.of(), Duration.ofMillis(50))));
+
+        HealthCheckResult result = service.checkTarget(target.getId(), true);
+
+        assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.INVALID_JSON);
+    }
+
+    @Test
+    void jsonDeeperThanLimitIsInvalid() {
+        properties.setJsonMaxDepth(3);
+        Target target = createDefaultTarget(true);
+        transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "{\"a\":{\"b\":{\"c\":{\"d\":1}}}}", Map.of(), Duration.ofMillis(50))));
+
+        HealthCheckResult result = service.checkTarget(target.getId(), true);
+
+        assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.INVALID_JSON);
+        assertThat(result.getErrorMessage()).contains("depth");
+    }
+
     @Test
     void non2xxIsHandled() {
         Target target = createDefaultTarget(false);
@@ -143,6 +219,50 @@ public class HealthCheckServiceTest {
         assertThat(result.getErrorCategory()).isEqualTo(ErrorCategory.SLOW_RESPONSE);
     }
 
+    @Test
+    void slowThresholdCanApplyToOnePhaseAndEveryPhaseIsReported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckService metered = new HealthCheckService(properties, new ObjectMapper(), transport, registry);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Large download");
+            request.setUrl("https://example.com/export");
+            request.setSlowThreshold(Duration.ofMillis(500));
+            request.setSlowThresholdPhase(ProbePhase.TTFB);
+            request.setMaxRetries(0);
+            Target target = metered.createTarget(request);
+            transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(timed(-1, 100, 900)));
+            transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(timed(20, 700, 10)));
+
+            HealthCheckResult fastHeaders = metered.checkTarget(target.getId(), true);
+            HealthCheckResult slowHeaders = metered.checkTarget(target.getId(), true);
+
+            assertThat(fastHeaders.getStatus()).isEqualTo(HealthStatus.UP);
+            assertThat(fastHeaders.getLatencyMs()).isEqualTo(1000);
+            assertThat(fastHeaders.getDnsMs()).isNull();
+            assertThat(fastHeaders.getTtfbMs()).isEqualTo(100);
+            assertThat(fastHeaders.getDownloadMs()).isEqualTo(900);
+            assertThat(slowHeaders.getErrorCategory()).isEqualTo(ErrorCategory.SLOW_RESPONSE);
+            assertThat(slowHeaders.getErrorMessage()).isEqualTo("TTFB exceeded slow threshold");
+            assertThat(slowHeaders.getDnsMs()).isEqualTo(20);
+            assertThat(registry.get("healthcheck.transport.phase").tags("phase", "TTFB").timer().count())
+                .isEqualTo(2);
+            assertThat(registry.get("healthcheck.transport.phase").tags("phase", "DNS").timer().count())
+                .isEqualTo(1);
+            assertThat(registry.get("healthcheck.transport.phase").tags("phase", "TOTAL").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1730);
+        } finally {
+            metered.shutdown();
+        }
+    }
+
+    private static HttpResponseData timed(long dnsMs, long ttfbMs, long downloadMs) {
+        long totalMs = Math.max(0, dnsMs) + ttfbMs + downloadMs;
+        ProbeTimings timings = new ProbeTimings(dnsMs < 0 ? -1 : dnsMs * 1_000_000L, ttfbMs * 1_000_000L,
+            downloadMs * 1_000_000L, totalMs * 1_000_000L);
+        return new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(totalMs), 2, false, null, null, timings);
+    }
+
     @Test
     void retryEventuallySucceeds() {
         Target target = createDefaultTarget(false);
@@ -160,15 +280,25 @@ public class HealthCheckServiceTest {
     void cachedResultIsUsed() {
         Target target = createDefaultTarget(false);
         UUID id = target.getId();
+        Map<String, List<String>> headers = new HashMap<>(Map.of("Server", new ArrayList<>(List.of("nginx"))));
         transport.enqueue(id, new FakeTransport.TransportOutcome(
-            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(50))));
+            new HttpResponseData(200, "ok", headers, Duration.ofMillis(50))));
 
         HealthCheckResult first = service.checkTarget(id, true);
         HealthCheckResult cached = service.checkTarget(id, false);
 
         assertThat(cached.isFromCache()).isTrue();
-        assertThat(cached.getCachedAt()).isNotNull();
+        assertThat(cached.getCachedAt()).isEqualTo(first.getTimestamp());
         assertThat(cached.getStatus()).isEqualTo(first.getStatus());
+        assertThat(service.checkTarget(id, false)).isSameAs(cached);
+        assertThat(first.isFromCache()).isFalse();
+        assertThat(service.getLastResults().get(id)).isSameAs(first);
+        assertThatThrownBy(() -> cached.getResponseHeaders().put("Server", List.of("changed")))
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        headers.get("Server").add("envoy");
+        headers.put("Via", List.of("proxy"));
+        assertThat(cached.getResponseHeaders()).containsExactly(Map.entry("Server", List.of("nginx")));
     }
 
     @Test
@@ -186,4 +316,399 @@ public class HealthCheckServiceTest {
         assertThat(second.getStatus()).isEqualTo(HealthStatus.DOWN);
         assertThat(third.getErrorCategory()).isEqualTo(ErrorCategory.CIRCUIT_OPEN);
     }
+
+    @Test
+    void breakerAdmitsTrialProbeAfterOpenWindowAndCloses() throws Exception {
+        properties.setCircuitOpenDuration(Duration.ofMillis(50));
+        Target target = createDefaultTarget(false);
+        UUID id = target.getId();
+        for (int i = 0; i < 4; i++) {
+            transport.enqueue(id, new FakeTransport.TransportOutcome(new HttpTimeoutException("timeout")));
+        }
+        transport.enqueue(id, new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+
+        service.checkTarget(id, true);
+        service.checkTarget(id, true);
+        assertThat(service.getCircuitBreaker(id).getState()).isEqualTo("OPEN");
+
+        Thread.sleep(80);
+        HealthCheckResult trial = service.checkTarget(id, true);
+
+        assertThat(trial.getStatus()).isEqualTo(HealthStatus.UP);
+        CircuitBreakerResponse breaker = service.getCircuitBreaker(id);
+        assertThat(breaker.getState()).isEqualTo("CLOSED");
+        assertThat(breaker.getTimesOpened()).isEqualTo(1);
+        assertThat(breaker.getTimesHalfOpened()).isEqualTo(1);
+        assertThat(breaker.getTimesClosed()).isEqualTo(1);
+    }
+
+    @Test
+    void everyAttemptIsRecordedInLatencyHistograms() {
+        Target first = createDefaultTarget(false);
+        Target second = createDefaultTarget(false);
+        transport.enqueue(first.getId(), new FakeTransport.TransportOutcome(new HttpTimeoutException("timeout")));
+        transport.enqueue(first.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+        transport.enqueue(second.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+
+        service.checkTarget(first.getId(), true);
+        service.checkTarget(second.getId(), true);
+
+        LatencyResponse latency = service.getLatency(first.getId());
+        assertThat(latency.getWindows()).hasSize(3);
+        assertThat(latency.getWindows().get(0).getCount()).isEqualTo(2);
+        LatencyResponse fleet = service.getFleetLatency();
+        assertThat(fleet.getTargets()).isEqualTo(2);
+        assertThat(fleet.getWindows().get(2).getCount()).isEqualTo(3);
+        assertThat(service.getLatency(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void historyKeepsEveryStoredResultNewestFirst() {
+        Target target = createDefaultTarget(false);
+        UUID id = target.getId();
+        transport.enqueue(id, new FakeTransport.TransportOutcome(
+            new HttpResponseData(503, "down", Map.of(), Duration.ofMillis(10))));
+        transport.enqueue(id, new FakeTransport.TransportOutcome(
+            new HttpResponseData(503, "down", Map.of(), Duration.ofMillis(10))));
+        transport.enqueue(id, new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+
+        service.checkTarget(id, true);
+        service.checkTarget(id, true);
+
+        List<ResultHistoryEntry> history = service.getHistory(id, 10, null);
+        assertThat(history).extracting(ResultHistoryEntry::getStatus)
+            .containsExactly(HealthStatus.UP, HealthStatus.DOWN);
+        assertThat(history.get(1).getHttpStatus()).isEqualTo(503);
+        assertThat(history.get(1).getAttempts()).isEqualTo(2);
+        assertThat(service.getHistory(UUID.randomUUID(), 10, null)).isNull();
+    }
+
+    @Test
+    void summaryTracksTransitionsAndDeletes() {
+        Target healthy = createDefaultTarget(false);
+        Target failing = createDefaultTarget(false);
+        transport.enqueue(healthy.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+        transport.enqueue(failing.getId(), new FakeTransport.TransportOutcome(new HttpTimeoutException("timeout")));
+
+        service.checkTarget(healthy.getId(), true);
+        service.checkTarget(failing.getId(), true);
+
+        HealthSummaryResponse summary = service.getSummary();
+        assertThat(summary.getStatusCounts()).containsEntry(HealthStatus.UP, 1L).containsEntry(HealthStatus.DOWN, 1L);
+        assertThat(summary.getErrorCategoryCounts()).containsOnlyKeys(ErrorCategory.TIMEOUT);
+        assertThat(service.getSummary()).isSameAs(summary);
+
+        transport.enqueue(failing.getId(), new FakeTransport.TransportOutcome(
+            new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+        service.checkTarget(failing.getId(), true);
+        assertThat(service.getSummary().getStatusCounts()).containsOnly(Map.entry(HealthStatus.UP, 2L));
+        assertThat(service.getSummary().getErrorCategoryCounts()).isEmpty();
+
+        service.deleteTarget(healthy.getId());
+        assertThat(service.getSummary().getStatusCounts()).containsOnly(Map.entry(HealthStatus.UP, 1L));
+    }
+
+    @Test
+    void resultsArePagedByTargetIdAndFiltered() {
+        List<UUID> down = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Target target = createDefaultTarget(false);
+            if (i % 2 == 0) {
+                transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(
+                    new HttpResponseData(200, "ok", Map.of("Server", List.of("fake")), Duration.ofMillis(10))));
+            } else {
+                transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(new HttpTimeoutException("timeout")));
+                down.add(target.getId());
+            }
+            service.checkTarget(target.getId(), true);
+        }
+        long version = service.getResultsVersion();
+
+        ResultsQuery query = new ResultsQuery();
+        query.setLimit(2);
+        List<UUID> seen = new ArrayList<>();
+        ResultsPage page;
+        do {
+            page = service.getResults(query);
+            seen.addAll(page.getResults().keySet());
+            query.setCursor(page.getNextCursor());
+        } while (page.getNextCursor() != null);
+        assertThat(seen).hasSize(5).isSorted();
+
+        ResultsQuery failing = new ResultsQuery();
+        failing.setErrorCategory(Set.of(ErrorCategory.TIMEOUT));
+        failing.setView(ResultView.COMPACT);
+        Map<UUID, HealthCheckResult> results = service.getResults(failing).getResults();
+        assertThat(results).containsOnlyKeys(down);
+        assertThat(results.values()).allSatisfy(result -> assertThat(result.getResponseHeaders()).isNull());
+
+        ResultsQuery up = new ResultsQuery();
+        up.setStatus(Set.of(HealthStatus.UP));
+        up.setSince(Instant.now().minusSeconds(60));
+        assertThat(service.getResults(up).getResults().values())
+            .hasSize(3)
+            .allSatisfy(result -> assertThat(result.getResponseHeaders()).containsKey("Server"));
+        assertThat(service.getResultsVersion()).isEqualTo(version);
+
+        service.deleteTarget(down.get(0));
+        assertThat(service.getResultsVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    void targetsSurviveRestartWithPersistence(@TempDir Path directory) {
+        properties.setPersistenceEnabled(true);
+        properties.setPersistenceDir(directory.toString());
+        HealthCheckService first = new HealthCheckService(properties, new ObjectMapper(), transport);
+        CreateTargetRequest request = new CreateTargetRequest();
+        request.setName("Persisted");
+        request.setUrl("https://example.com/health");
+        request.setMethod(HttpMethod.GET);
+        request.setTimeout(Duration.ofSeconds(1));
+        Target kept = first.createTarget(request);
+        Target removed = first.createTarget(request);
+        UpdateTargetRequest update = new UpdateTargetRequest();
+        update.setName("Renamed");
+        first.updateTarget(kept.getId(), update);
+        first.deleteTarget(removed.getId());
+        first.shutdown();
+
+        HealthCheckService restarted = new HealthCheckService(properties, new ObjectMapper(), transport);
+        try {
+            assertThat(restarted.listTargets()).extracting(Target::getId).containsExactly(kept.getId());
+            assertThat(restarted.getTarget(kept.getId()).getName()).isEqualTo("Renamed");
+            transport.enqueue(kept.getId(), new FakeTransport.TransportOutcome(
+                new HttpResponseData(200, "ok", Map.of(), Duration.ofMillis(10))));
+            assertThat(restarted.checkTarget(kept.getId(), true).getStatus()).isEqualTo(HealthStatus.UP);
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void pipelineMetricsAreRecordedAndPerTargetSeriesRemovedOnDelete() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        properties.setMetricsPerTargetTags(true);
+        HealthCheckService metered = new HealthCheckService(properties, new ObjectMapper(), transport, registry);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Metered");
+            request.setUrl("https://example.com/health");
+            request.setMaxRetries(1);
+            Target target = metered.createTarget(request);
+            String id = target.getId().toString();
+            transport.enqueue(target.getId(), new FakeTransport.TransportOutcome(new HttpTimeoutException("timeout")));
+
+            metered.checkTarget(target.getId(), false);
+            metered.checkTarget(target.getId(), false);
+            metered.checkTarget(target.getId(), true);
+
+            assertThat(registry.get("healthcheck.cache").tags("result", "miss", "target", id).counter().count()).isEqualTo(1);
+            assertThat(registry.get("healthcheck.cache").tags("result", "hit", "target", id).counter().count()).isEqualTo(1);
+            assertThat(registry.get("healthcheck.retries").tags("category", "TIMEOUT").counter().count()).isEqualTo(2);
+            assertThat(registry.get("healthcheck.transport.latency").tags("category", "TIMEOUT").timer().count())
+                .isEqualTo(4);
+            assertThat(registry.get("healthcheck.probes").tags("status", "DOWN").counter().count()).isEqualTo(2);
+            assertThat(registry.get("healthcheck.breaker.trips").counter().count()).isEqualTo(1);
+            assertThat(registry.get("healthcheck.breakers.open").gauge().value()).isEqualTo(1);
+
+            metered.deleteTarget(target.getId());
+            assertThat(registry.find("healthcheck.probes").tag("target", id).meters()).isEmpty();
+            assertThat(registry.get("healthcheck.breakers.open").gauge().value()).isZero();
+        } finally {
+            metered.shutdown();
+        }
+    }
+
+    @Test
+    void probeInFlightAcrossDeleteDoesNotRegisterPerTargetMeters() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        properties.setMetricsPerTargetTags(true);
+        HealthCheckService metered = new HealthCheckService(properties, new ObjectMapper(), transport, registry);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Deleted mid-probe");
+            request.setUrl("https://example.com/health");
+            Target target = metered.createTarget(request);
+            String id = target.getId().toString();
+            CountDownLatch gate = new CountDownLatch(1);
+            transport.hold(gate);
+            CompletableFuture<HealthCheckResult> probe =
+                CompletableFuture.supplyAsync(() -> metered.checkTarget(target.getId(), true), callerPool);
+            awaitInvocations(target.getId(), 1);
+
+            metered.deleteTarget(target.getId());
+            gate.countDown();
+            probe.handle((result, error) -> null).get(5, TimeUnit.SECONDS);
+
+            assertThat(registry.getMeters()).noneMatch(meter -> id.equals(meter.getId().getTag("target")));
+        } finally {
+            metered.shutdown();
+        }
+    }
+
+    @Test
+    void scheduledSweepChecksEveryTarget() {
+        for (int i = 0; i < 5; i++) {
+            createDefaultTarget(false);
+        }
+
+        service.scheduledChecks();
+
+        assertThat(service.getLastResults()).hasSize(5);
+        EngineStatsResponse stats = service.getEngineStats();
+        assertThat(stats.getSweepsCompleted()).isEqualTo(1);
+        assertThat(stats.getLastSweepTargets()).isEqualTo(5);
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getQueued()).isZero();
+    }
+
+    @Test
+    void perTargetIntervalDrivesBackgroundChecks() throws Exception {
+        properties.setPerTargetScheduling(true);
+        properties.setWheelTick(Duration.ofMillis(10));
+        HealthCheckService scheduled = new HealthCheckService(properties, new ObjectMapper(), transport);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Fast API");
+            request.setUrl("https://example.com/health");
+            request.setCheckInterval(Duration.ofMillis(50));
+            Target target = scheduled.createTarget(request);
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (scheduled.getLastResults().get(target.getId()) == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(scheduled.getLastResults()).containsKey(target.getId());
+            EngineStatsResponse stats = scheduled.getEngineStats();
+            assertThat(stats.getSchedulingMode()).isEqualTo("wheel");
+            assertThat(stats.getScheduledTargets()).isEqualTo(1);
+            assertThat(stats.getScheduledProbesFired()).isPositive();
+
+            scheduled.deleteTarget(target.getId());
+            Thread.sleep(100);
+            scheduled.getLastResults().clear();
+            Thread.sleep(200);
+            assertThat(scheduled.getLastResults()).doesNotContainKey(target.getId());
+        } finally {
+            scheduled.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentChecksShareOneProbe() throws Exception {
+        Target target = createDefaultTarget(false);
+        UUID id = target.getId();
+        CountDownLatch gate = new CountDownLatch(1);
+        transport.hold(gate);
+
+        List<CompletableFuture<HealthCheckResult>> callers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> service.checkTarget(id, true), callerPool));
+        }
+        awaitInvocations(id, 1);
+        Thread.sleep(50);
+        gate.countDown();
+
+        HealthCheckResult first = callers.get(0).get(2, TimeUnit.SECONDS);
+        for (CompletableFuture<HealthCheckResult> caller : callers) {
+            assertThat(caller.get(2, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(transport.invocations(id)).isEqualTo(1);
+    }
+
+    @Test
+    void forceWithNextPolicyWaitsForFreshProbe() throws Exception {
+        properties.setForceCheckPolicy(ForceCheckPolicy.NEXT);
+        Target target = createDefaultTarget(false);
+        UUID id = target.getId();
+        CountDownLatch gate = new CountDownLatch(1);
+        transport.hold(gate);
+
+        CompletableFuture<HealthCheckResult> running = CompletableFuture.supplyAsync(() -> service.checkTarget(id, true), callerPool);
+        awaitInvocations(id, 1);
+        CompletableFuture<HealthCheckResult> forcedA = CompletableFuture.supplyAsync(() -> service.checkTarget(id, true), callerPool);
+        CompletableFuture<HealthCheckResult> forcedB = CompletableFuture.supplyAsync(() -> service.checkTarget(id, true), callerPool);
+        Thread.sleep(50);
+        gate.countDown();
+
+        HealthCheckResult first = running.get(2, TimeUnit.SECONDS);
+        HealthCheckResult next = forcedA.get(2, TimeUnit.SECONDS);
+        assertThat(next).isNotSameAs(first);
+        assertThat(forcedB.get(2, TimeUnit.SECONDS)).isSameAs(next);
+        assertThat(transport.invocations(id)).isEqualTo(2);
+    }
+
+    @Test
+    void expiredResultIsServedStaleWhileOneBackgroundRefreshRuns() throws Exception {
+        properties.setCacheTtl(Duration.ofMillis(20));
+        properties.setCacheStaleGrace(Duration.ofSeconds(30));
+        HealthCheckService revalidating = new HealthCheckService(properties, new ObjectMapper(), transport);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Revalidated");
+            request.setUrl("https://example.com/health");
+            request.setMaxRetries(0);
+            UUID id = revalidating.createTarget(request).getId();
+            HealthCheckResult first = revalidating.checkTarget(id, true);
+            Thread.sleep(40);
+            CountDownLatch gate = new CountDownLatch(1);
+            transport.hold(gate);
+            transport.enqueue(id, new FakeTransport.TransportOutcome(
+                new HttpResponseData(500, "down", Map.of(), Duration.ofMillis(5))));
+
+            HealthCheckResult stale = revalidating.checkTarget(id, false);
+            HealthCheckResult again = revalidating.checkTarget(id, false);
+
+            assertThat(stale.isStale()).isTrue();
+            assertThat(stale.isFromCache()).isTrue();
+            assertThat(stale.getCachedAt()).isEqualTo(first.getTimestamp());
+            assertThat(stale.getStatus()).isEqualTo(HealthStatus.UP);
+            assertThat(again).isSameAs(stale);
+            gate.countDown();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (revalidating.getLastResults().get(id) == first && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(revalidating.getLastResults().get(id).getStatus()).isEqualTo(HealthStatus.DOWN);
+            assertThat(transport.invocations(id)).isEqualTo(2);
+        } finally {
+            transport.hold(null);
+            revalidating.shutdown();
+        }
+    }
+
+    @Test
+    void hitsCloseToExpiryRefreshTheResultAhead() throws Exception {
+        properties.setCacheRefreshAhead(properties.getCacheTtl());
+        HealthCheckService refreshing = new HealthCheckService(properties, new ObjectMapper(), transport);
+        try {
+            CreateTargetRequest request = new CreateTargetRequest();
+            request.setName("Popular");
+            request.setUrl("https://example.com/health");
+            UUID id = refreshing.createTarget(request).getId();
+            HealthCheckResult first = refreshing.checkTarget(id, true);
+
+            HealthCheckResult hit = refreshing.checkTarget(id, false);
+            awaitInvocations(id, 2);
+
+            assertThat(hit.isFromCache()).isTrue();
+            assertThat(hit.isStale()).isFalse();
+            assertThat(hit.getCachedAt()).isEqualTo(first.getTimestamp());
+            assertThat(transport.invocations(id)).isEqualTo(2);
+        } finally {
+            refreshing.shutdown();
+        }
+    }
+
+    private void awaitInvocations(UUID id, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (transport.invocations(id) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
 }
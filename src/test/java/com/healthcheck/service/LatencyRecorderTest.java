@@ -0,0 +1,59 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.LatencyWindowStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyRecorderTest {
+    @Test
+    void percentilesStayWithinHistogramPrecision() {
+        LatencyRecorder recorder = new LatencyRecorder(List.of(Duration.ofMinutes(1)));
+        for (long micros = 1; micros <= 100_000; micros++) {
+            recorder.record(micros * 10);
+        }
+
+        LatencyWindowStats stats = recorder.snapshot().get(0);
+
+        assertThat(stats.getCount()).isEqualTo(100_000);
+        assertThat(stats.getP50Ms()).isCloseTo(500.0, within(500.0 * 0.065));
+        assertThat(stats.getP99Ms()).isCloseTo(990.0, within(990.0 * 0.065));
+        assertThat(stats.getP999Ms()).isCloseTo(999.0, within(999.0 * 0.065));
+        assertThat(stats.getMaxMs()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void bucketIndexRoundTripsAcrossTheRange() {
+        for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 7) {
+            long reported = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value));
+            assertThat(reported).isGreaterThanOrEqualTo(value);
+            assertThat((double) reported - value).isLessThanOrEqualTo(value / 16.0);
+        }
+        assertThat(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void windowsRotateIndependently() {
+        AtomicLong clock = new AtomicLong();
+        LatencyRecorder recorder = new LatencyRecorder(List.of(Duration.ofSeconds(60), Duration.ofSeconds(900)),
+            clock::get);
+        recorder.record(5_000);
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        recorder.record(7_000);
+        List<LatencyWindowStats> afterOnePeriod = recorder.snapshot();
+        assertThat(afterOnePeriod.get(0).getCount()).isEqualTo(2);
+        assertThat(afterOnePeriod.get(1).getCount()).isEqualTo(2);
+
+        clock.addAndGet(Duration.ofSeconds(120).toNanos());
+        List<LatencyWindowStats> later = recorder.snapshot();
+        assertThat(later.get(0).getCount()).isZero();
+        assertThat(later.get(1).getCount()).isEqualTo(2);
+        assertThat(later.get(1).getMaxMs()).isEqualTo(7.0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.healthcheck.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final UUID targetId = UUID.randomUUID();
+
+    private RateLimiter limiter(HealthCheckProperties properties) {
+        return new RateLimiter(properties, clock::get);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Test
+    void hostBucketAdmitsBurstThenPacesAndSkipsPastMaxWait() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setRateLimitPerHost(10);
+        properties.setRateLimitPerHostBurst(2);
+        properties.setRateLimitMaxWait(Duration.ofMillis(250));
+        RateLimiter limiter = limiter(properties);
+
+        assertThat(limiter.reserve("a.example", targetId, null, 0)).isZero();
+        assertThat(limiter.reserve("a.example", targetId, null, 0)).isZero();
+        assertThat(millis(limiter.reserve("a.example", targetId, null, 0))).isEqualTo(100);
+        assertThat(millis(limiter.reserve("a.example", targetId, null, 0))).isEqualTo(200);
+        assertThat(limiter.reserve("a.example", targetId, null, 0)).isEqualTo(RateLimiter.SKIP);
+        assertThat(limiter.reserve("b.example", targetId, null, 0)).isZero();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        assertThat(limiter.reserve("a.example", targetId, null, 0)).isZero();
+    }
+
+    @Test
+    void targetOverrideAndGlobalBucketBothApplyAndSkipReleasesEarlierPermits() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setRateLimitGlobal(1);
+        properties.setRateLimitGlobalBurst(1);
+        properties.setRateLimitMaxWait(Duration.ofMillis(500));
+        RateLimiter limiter = limiter(properties);
+        UUID other = UUID.randomUUID();
+
+        assertThat(limiter.reserve("a.example", targetId, 100.0, 0)).isZero();
+        // the target bucket has room, the global one does not: nothing may stay reserved
+        assertThat(limiter.reserve("a.example", other, 100.0, 0)).isEqualTo(RateLimiter.SKIP);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.reserve("a.example", other, 100.0, 0)).isZero();
+        assertThat(limiter.reserve("a.example", targetId, 2.0, TimeUnit.SECONDS.toNanos(1)))
+            .isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void retryAfterParksHostWithoutShorteningAnExistingDeadline() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setRateLimitMaxWait(Duration.ofSeconds(5));
+        properties.setRetryAfterDefault(Duration.ofSeconds(10));
+        properties.setRetryAfterMax(Duration.ofMinutes(1));
+        RateLimiter limiter = limiter(properties);
+
+        limiter.park("a.example", TimeUnit.SECONDS.toNanos(3));
+        limiter.park("a.example", TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.parkedMillis("a.example")).isEqualTo(3000);
+        assertThat(millis(limiter.reserve("a.example", targetId, null, 0))).isEqualTo(3000);
+        assertThat(millis(limiter.reserve("a.example", targetId, null, TimeUnit.SECONDS.toNanos(4)))).isEqualTo(4000);
+
+        limiter.park("a.example", -1);
+        assertThat(limiter.parkedMillis("a.example")).isEqualTo(10_000);
+        assertThat(limiter.reserve("a.example", targetId, null, 0)).isEqualTo(RateLimiter.SKIP);
+        limiter.park("a.example", TimeUnit.HOURS.toNanos(1));
+        assertThat(limiter.parkedMillis("a.example")).isEqualTo(60_000);
+    }
+
+    @Test
+    void parsesRetryAfterSecondsAndHttpDate() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        assertThat(RateLimiter.retryAfterNanos(Map.of("retry-after", List.of("120")), now))
+            .isEqualTo(TimeUnit.SECONDS.toNanos(120));
+        assertThat(RateLimiter.retryAfterNanos(Map.of("Retry-After", List.of("Mon, 01 Jan 2024 00:00:30 GMT")), now))
+            .isEqualTo(TimeUnit.SECONDS.toNanos(30));
+        assertThat(RateLimiter.retryAfterNanos(Map.of("Retry-After", List.of("soon")), now)).isEqualTo(-1);
+        assertThat(RateLimiter.retryAfterNanos(Map.of(), now)).isEqualTo(-1);
+    }
+}
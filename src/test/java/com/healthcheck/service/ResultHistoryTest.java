@@ -0,0 +1,78 @@
+package com.healthcheck.service;
+
+import com.healthcheck.model.ErrorCategory;
+import com.healthcheck.model.HealthCheckResult;
+import com.healthcheck.model.HealthStatus;
+import com.healthcheck.model.ResultHistoryEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultHistoryTest {
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private HealthCheckResult result(Instant timestamp, HealthStatus status, Integer httpStatus, long latencyMs,
+                                     ErrorCategory category, int attempts) {
+        return HealthCheckResult.builder()
+            .timestamp(timestamp)
+            .status(status)
+            .httpStatus(httpStatus)
+            .latencyMs(latencyMs)
+            .errorCategory(category)
+            .attempts(attempts)
+            .build();
+    }
+
+    @Test
+    void roundTripsColumnsAndKeepsOnlyTheNewestCapacity() {
+        ResultHistory history = new ResultHistory(3);
+        for (int i = 0; i < 5; i++) {
+            history.record(result(START.plusSeconds(i), HealthStatus.UP, 200, 10 + i, ErrorCategory.NONE, 1));
+        }
+        history.record(result(START.plusSeconds(5), HealthStatus.DOWN, null, 100_000, ErrorCategory.TIMEOUT, 3));
+
+        List<ResultHistoryEntry> entries = history.read(10, Long.MIN_VALUE);
+
+        assertThat(entries).hasSize(3);
+        ResultHistoryEntry newest = entries.get(0);
+        assertThat(newest.getTimestamp()).isEqualTo(START.plusSeconds(5));
+        assertThat(newest.getStatus()).isEqualTo(HealthStatus.DOWN);
+        assertThat(newest.getHttpStatus()).isNull();
+        assertThat(newest.getLatencyMs()).isEqualTo(65_535);
+        assertThat(newest.getErrorCategory()).isEqualTo(ErrorCategory.TIMEOUT);
+        assertThat(newest.getAttempts()).isEqualTo(3);
+        assertThat(entries.get(1).getHttpStatus()).isEqualTo(200);
+        assertThat(entries.get(2).getLatencyMs()).isEqualTo(13);
+    }
+
+    @Test
+    void filtersBySinceAndLimit() {
+        ResultHistory history = new ResultHistory(10);
+        for (int i = 0; i < 6; i++) {
+            history.record(result(START.plusSeconds(i), HealthStatus.UP, 204, 5, ErrorCategory.NONE, 1));
+        }
+
+        assertThat(history.read(10, START.plusSeconds(3).toEpochMilli())).hasSize(3);
+        assertThat(history.read(2, Long.MIN_VALUE)).extracting(ResultHistoryEntry::getTimestamp)
+            .containsExactly(START.plusSeconds(5), START.plusSeconds(4));
+    }
+
+    @Test
+    void rebasingKeepsRecentSamplesAndDropsUnrepresentableOnes() {
+        ResultHistory history = new ResultHistory(4);
+        history.record(result(START, HealthStatus.UP, 200, 1, ErrorCategory.NONE, 1));
+        Instant twentyDays = START.plus(Duration.ofDays(20));
+        history.record(result(twentyDays, HealthStatus.UP, 200, 2, ErrorCategory.NONE, 1));
+        Instant fortyDays = START.plus(Duration.ofDays(40));
+        history.record(result(fortyDays, HealthStatus.DEGRADED, 200, 3, ErrorCategory.SLOW_RESPONSE, 1));
+
+        List<ResultHistoryEntry> entries = history.read(10, Long.MIN_VALUE);
+
+        assertThat(entries).extracting(ResultHistoryEntry::getTimestamp).containsExactly(fortyDays, twentyDays);
+        assertThat(entries.get(0).getErrorCategory()).isEqualTo(ErrorCategory.SLOW_RESPONSE);
+    }
+}
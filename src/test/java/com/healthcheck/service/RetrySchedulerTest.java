@@ -0,0 +1,60 @@
+package com.healthcheck.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetrySchedulerTest {
+    @Test
+    void jitteredDelaysStayWithinBaseAndCap() {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        properties.setRetryBaseBackoff(Duration.ofMillis(100));
+        properties.setRetryMaxBackoff(Duration.ofMillis(1000));
+        RetryScheduler scheduler = new RetryScheduler(properties);
+
+        long previous = 0;
+        for (int i = 0; i < 1000; i++) {
+            long delay = scheduler.nextDelay(previous);
+            assertThat(delay).isBetween(100L, Math.min(1000L, Math.max(100L, previous) * 3));
+            previous = delay;
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    void delayCompletesOnContinuationExecutor() throws Exception {
+        HealthCheckProperties properties = new HealthCheckProperties();
+        RetryScheduler scheduler = new RetryScheduler(properties);
+        ExecutorService continuation = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "continuation"));
+        CountDownLatch attached = new CountDownLatch(1);
+        // completion waits until the dependent stage below is attached, so that stage must run on "continuation"
+        Executor gated = runnable -> continuation.execute(() -> {
+            awaitUninterruptibly(attached);
+            runnable.run();
+        });
+
+        CompletableFuture<String> thread = scheduler.delay(0, gated)
+            .thenApply(ignored -> Thread.currentThread().getName());
+        attached.countDown();
+
+        assertThat(thread.get(5, TimeUnit.SECONDS)).isEqualTo("continuation");
+        continuation.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.healthcheck.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingHostResolverTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final Map<String, InetAddress> records = new ConcurrentHashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+
+    /**
+     * Local stand-in for DNS: answers from {@link #records}, and lookups only run when the test drains
+     * {@link #pending}.
+     */
+    private final HostResolver standIn = host -> {
+        lookups.incrementAndGet();
+        InetAddress address = records.get(host);
+        if (address == null) {
+            throw new UnknownHostException(host);
+        }
+        return new InetAddress[] {address};
+    };
+
+    private final CachingHostResolver resolver = new CachingHostResolver(standIn, pending::add,
+        Duration.ofSeconds(5), clock::get);
+
+    private static InetAddress address(int last) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[] {10, 0, 0, (byte) last});
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(seconds * 1_000_000_000L);
+    }
+
+    private void runLookups() {
+        Runnable next;
+        while ((next = pending.poll()) != null) {
+            next.run();
+        }
+    }
+
+    @Test
+    void concurrentLookupsShareOneAndAnswersAreNotCached() throws Exception {
+        records.put("api.example", address(1));
+
+        CompletableFuture<InetAddress[]> first = resolver.resolve("api.example");
+        CompletableFuture<InetAddress[]> second = resolver.resolve("api.example");
+        assertThat(first).isNotDone();
+        runLookups();
+
+        assertThat(first.get()).containsExactly(address(1));
+        assertThat(second.get()).containsExactly(address(1));
+        assertThat(lookups).hasValue(1);
+
+        records.put("api.example", address(3));
+        CompletableFuture<InetAddress[]> next = resolver.resolve("api.example");
+        runLookups();
+        assertThat(next.get()).containsExactly(address(3));
+        assertThat(resolver.getMisses()).isEqualTo(2);
+        assertThat(resolver.getHits()).isZero();
+    }
+
+    @Test
+    void failuresAreCachedForTheNegativeTtl() throws Exception {
+        CompletableFuture<InetAddress[]> failed = resolver.resolve("missing.example");
+        runLookups();
+        assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(UnknownHostException.class);
+
+        advanceSeconds(4);
+        assertThat(resolver.resolve("missing.example")).isCompletedExceptionally();
+        assertThat(pending).isEmpty();
+
+        records.put("missing.example", address(2));
+        advanceSeconds(1);
+        CompletableFuture<InetAddress[]> retried = resolver.resolve("missing.example");
+        runLookups();
+        assertThat(retried.getNow(null)).containsExactly(address(2));
+        assertThat(lookups).hasValue(2);
+        assertThat(resolver.getHits()).isEqualTo(1);
+    }
+}
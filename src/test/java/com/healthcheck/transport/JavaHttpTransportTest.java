@@ -0,0 +1,298 @@
+package com.healthcheck.transport;
+
+import com.healthcheck.model.ConnectionPoolStats;
+import com.healthcheck.model.HttpMethod;
+import com.healthcheck.model.HttpProtocol;
+import com.healthcheck.model.Target;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JavaHttpTransportTest {
+    private static final int LARGE_BODY_BYTES = 4 * 1024 * 1024;
+
+    private HttpServer server;
+    private JavaHttpTransport transport;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/large", exchange -> {
+            byte[] chunk = new byte[8192];
+            Arrays.fill(chunk, (byte) 'a');
+            byte[] marker = "status-ok".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, LARGE_BODY_BYTES);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int written = 0; written < LARGE_BODY_BYTES; written += chunk.length) {
+                    if (written == 64 * 1024) {
+                        // split the marker across two writes so it spans a chunk boundary
+                        byte[] split = chunk.clone();
+                        System.arraycopy(marker, 0, split, chunk.length - 4, 4);
+                        out.write(split);
+                        byte[] rest = chunk.clone();
+                        System.arraycopy(marker, 4, rest, 0, marker.length - 4);
+                        out.write(rest);
+                        written += chunk.length;
+                    } else {
+                        out.write(chunk);
+                    }
+                }
+            } catch (IOException ignored) {
+                // client cancelled the download
+            }
+        });
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/json", exchange -> {
+            StringBuilder json = new StringBuilder("{\"items\":[");
+            for (int i = 0; i < 20_000; i++) {
+                json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"ok\":true}");
+            }
+            byte[] body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        TransportSettings settings = new TransportSettings();
+        settings.setMaxPreviewBytes(16);
+        settings.setMaxBodyBytes(512 * 1024);
+        transport = new JavaHttpTransport(settings);
+    }
+
+    @AfterEach
+    void teardown() {
+        transport.close();
+        server.stop(0);
+    }
+
+    private Target target(String expectedBodyContains) {
+        return target("/large", false, expectedBodyContains);
+    }
+
+    private Target target(String path, boolean expectJson, String expectedBodyContains) {
+        return new Target(UUID.randomUUID(), "stub", "http://127.0.0.1:" + server.getAddress().getPort() + path,
+            HttpMethod.GET, Map.of(), null, null, Duration.ofSeconds(5), 200, 299, expectJson,
+            expectedBodyContains, Duration.ofSeconds(5), 0);
+    }
+
+    @Test
+    void timesWaitingForHeadersApartFromDownloadingTheBody() throws Exception {
+        server.createContext("/slow", exchange -> {
+            sleep(150);
+            exchange.sendResponseHeaders(200, 4);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("ab".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(150);
+                out.write("cd".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        HttpResponseData response = transport.executeAsync(target("/slow", false, null)).get();
+
+        ProbeTimings timings = response.getTimings();
+        assertThat(response.getBody()).isEqualTo("abcd");
+        assertThat(timings.getTtfbNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(140).toNanos());
+        assertThat(timings.getDownloadNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(140).toNanos());
+        assertThat(timings.getTotalNanos())
+            .isGreaterThanOrEqualTo(timings.getDnsNanos() + timings.getTtfbNanos() + timings.getDownloadNanos())
+            .isEqualTo(response.getDuration().toNanos());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void resolvesThroughTheHostResolverAndFailsWithoutSendingWhenItCannot() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        server.createContext("/counted", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        AtomicBoolean resolvable = new AtomicBoolean(true);
+        TransportSettings settings = new TransportSettings();
+        settings.setDnsNegativeTtl(Duration.ofMinutes(1));
+        JavaHttpTransport resolving = new JavaHttpTransport(settings, host -> {
+            if (!resolvable.get()) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] {InetAddress.getLoopbackAddress()};
+        });
+        try {
+            HttpResponseData response = resolving.executeAsync(target("/counted", false, null)).get();
+            assertThat(response.getStatusCode()).isEqualTo(204);
+            assertThat(response.getTimings().getDnsNanos()).isGreaterThanOrEqualTo(0);
+
+            Target unresolvable = new Target(UUID.randomUUID(), "stub",
+                "http://unresolvable.test:" + server.getAddress().getPort() + "/counted", HttpMethod.GET, Map.of(),
+                null, null, Duration.ofSeconds(5), 200, 299, false, null, Duration.ofSeconds(5), 0);
+            resolvable.set(false);
+            assertThatThrownBy(() -> resolving.executeAsync(unresolvable).get())
+                .hasCauseInstanceOf(UnknownHostException.class);
+            assertThatThrownBy(() -> resolving.execute(unresolvable)).isInstanceOf(UnknownHostException.class);
+            assertThat(requests).hasValue(1);
+            assertThat(resolving.resolver().getMisses()).isEqualTo(2);
+        } finally {
+            resolving.close();
+        }
+    }
+
+    @Test
+    void stopsReadingOnceExpectedContentIsFound() throws Exception {
+        HttpResponseData response = transport.executeAsync(target("status-ok")).get();
+
+        assertThat(response.getBodyMatched()).isTrue();
+        assertThat(response.getBody()).hasSize(16);
+        assertThat(response.isBodyTruncated()).isTrue();
+        assertThat(response.getBytesRead()).isLessThan(LARGE_BODY_BYTES);
+    }
+
+    @Test
+    void stopsReadingAtByteCapWhenContentIsMissing() throws Exception {
+        HttpResponseData response = transport.execute(target("never-present"));
+
+        assertThat(response.getBodyMatched()).isFalse();
+        assertThat(response.isBodyTruncated()).isTrue();
+        assertThat(response.getBytesRead()).isGreaterThanOrEqualTo(512 * 1024).isLessThan(LARGE_BODY_BYTES);
+    }
+
+    @Test
+    void validatesJsonWhileStreamingAndKeepsOnlyPreview() throws Exception {
+        HttpResponseData response = transport.executeAsync(target("/json", true, null)).get();
+
+        assertThat(response.getJsonVerdict()).isEqualTo(JsonVerdict.VALID);
+        assertThat(response.getBody()).hasSize(16);
+        assertThat(response.isBodyTruncated()).isFalse();
+    }
+
+    @Test
+    void nonJsonBodyIsRejectedWithoutReadingItAll() throws Exception {
+        HttpResponseData response = transport.executeAsync(target("/large", true, null)).get();
+
+        assertThat(response.getJsonVerdict()).isEqualTo(JsonVerdict.MALFORMED);
+        assertThat(response.getBytesRead()).isLessThan(512 * 1024);
+    }
+
+    @Test
+    void targetsOnTheSameHostShareOneClientPerProtocol() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Target target = target("/ok", false, null);
+            transport.prepare(target);
+            assertThat(transport.executeAsync(target).get().getStatusCode()).isEqualTo(200);
+        }
+        Target h2c = target("/ok", false, null);
+        h2c.setProtocol(HttpProtocol.H2C);
+        transport.prepare(h2c);
+        assertThat(transport.execute(h2c).getStatusCode()).isEqualTo(200);
+
+        List<ConnectionPoolStats> stats = transport.connectionStats();
+        assertThat(stats).hasSize(2);
+        assertThat(stats).extracting(ConnectionPoolStats::getClientVersion)
+            .containsExactlyInAnyOrder("HTTP_1_1", "HTTP_2");
+        ConnectionPoolStats http11 = stats.stream()
+            .filter(s -> s.getClientVersion().equals("HTTP_1_1")).findFirst().orElseThrow();
+        assertThat(http11.getRequests()).isEqualTo(3);
+        assertThat(http11.getHost()).isEqualTo("127.0.0.1");
+        assertThat(http11.getTlsHandshakes()).isNull();
+    }
+
+    @Test
+    void hostsShareOneClientAndEndpointsAreDroppedWithTheirLastTarget() throws Exception {
+        Target first = target("/ok", false, null);
+        Target second = target("/ok", false, null);
+        Target otherHost = target("/ok", false, null);
+        otherHost.setUrl("http://localhost:" + server.getAddress().getPort() + "/ok");
+        transport.prepare(first);
+        transport.prepare(second);
+        transport.prepare(otherHost);
+        assertThat(transport.template(otherHost).client().client())
+            .isSameAs(transport.template(first).client().client());
+        assertThat(transport.connectionStats()).extracting(ConnectionPoolStats::getHost)
+            .containsExactlyInAnyOrder("127.0.0.1", "localhost");
+
+        transport.release(otherHost.getId());
+        transport.release(first.getId());
+        assertThat(transport.connectionStats()).extracting(ConnectionPoolStats::getHost).containsExactly("127.0.0.1");
+
+        transport.release(second.getId());
+        assertThat(transport.connectionStats()).isEmpty();
+    }
+
+    @Test
+    void templateIsReusedUntilARequestFieldChanges() {
+        Target target = target("/ok", false, null);
+        transport.prepare(target);
+        RequestTemplate first = transport.template(target);
+
+        target.setName("renamed");
+        target.setMaxRetries(3);
+        assertThat(transport.template(target)).isSameAs(first);
+
+        target.setHeaders(Map.of("X-Probe", "1"));
+        RequestTemplate second = transport.template(target);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.request().headers().firstValue("X-Probe")).contains("1");
+    }
+
+    @Test
+    void probeInFlightWhenItsTargetIsReleasedDoesNotCacheATemplate() {
+        Target target = target("/ok", false, null);
+        transport.prepare(target);
+        transport.release(target.getId());
+
+        target.setHeaders(Map.of("X-Probe", "1"));
+        RequestTemplate template = transport.template(target);
+
+        assertThat(template.request().headers().firstValue("X-Probe")).contains("1");
+        assertThat(transport.template(target)).isNotSameAs(template);
+        assertThat(transport.connectionStats()).isEmpty();
+    }
+
+    @Test
+    void prepareRejectsTargetsThatCanNeverBeProbed() {
+        Target malformed = target("/ok", false, null);
+        malformed.setUrl("http://exa mple.com/health");
+        Target noHost = target("/ok", false, null);
+        noHost.setUrl("https:///health");
+        Target restrictedHeader = target("/ok", false, null);
+        restrictedHeader.setHeaders(Map.of("Connection", "close"));
+
+        assertThatThrownBy(() -> transport.prepare(malformed)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transport.prepare(noHost)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transport.prepare(restrictedHeader)).isInstanceOf(IllegalArgumentException.class);
+    }
+}